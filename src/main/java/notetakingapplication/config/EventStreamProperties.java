@@ -0,0 +1,16 @@
+package notetakingapplication.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.events")
+public class EventStreamProperties {
+    private int bufferSize = 64;
+    private long timeoutMillis = 30 * 60 * 1000L;
+    private long heartbeatIntervalMillis = 30_000;
+    private int senderThreads = 16;
+    private long writeTimeoutMillis = 10_000;
+}
@@ -0,0 +1,21 @@
+package notetakingapplication.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shuts the application down as soon as it is ready. Used for the CDS training run, which only
+ * needs startup to load every class before the JVM dumps its class archive on exit.
+ */
+@Component
+@ConditionalOnProperty("notes.startup.exit-on-ready")
+public class ExitOnReadyListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        SpringApplication.exit(event.getApplicationContext());
+    }
+}
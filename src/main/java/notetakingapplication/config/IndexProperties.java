@@ -0,0 +1,14 @@
+package notetakingapplication.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.index")
+public class IndexProperties {
+    private boolean enabled = false;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int splitThreshold = 16384;
+}
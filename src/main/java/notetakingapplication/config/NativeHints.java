@@ -0,0 +1,22 @@
+package notetakingapplication.config;
+
+import notetakingapplication.constant.Folder;
+import notetakingapplication.contract.request.NoteTakingRequest;
+import notetakingapplication.model.Note;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/** Reflection hints for the types ModelMapper and Jackson access reflectively in a native image. */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : new Class<?>[] {Note.class, NoteTakingRequest.class, Folder.class}) {
+            hints.reflection().registerType(type,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package notetakingapplication.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.limits")
+public class NoteLimitsProperties {
+    private long maxNotesPerOwner = 10_000;
+    private double writesPerSecond = 10;
+    private long writeBurst = 50;
+}
@@ -0,0 +1,18 @@
+package notetakingapplication.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.requests")
+public class RequestLimitsProperties {
+    private double requestsPerSecond = 20;
+    private long burst = 40;
+    private int maxTrackedClients = 10_000;
+    private int initialConcurrency = 20;
+    private int minConcurrency = 4;
+    private int maxConcurrency = 100;
+    private double latencyTolerance = 2.0;
+}
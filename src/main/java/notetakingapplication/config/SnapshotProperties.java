@@ -0,0 +1,18 @@
+package notetakingapplication.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.snapshot")
+public class SnapshotProperties {
+    private boolean enabled = false;
+    private String path = "data/notes-snapshot.bin";
+    private long intervalMillis = 60000;
+    private long replayOverlapMillis = 5000;
+    private long refreshIntervalMillis = 1000;
+    private long tombstoneRetentionMillis = 7 * 24 * 60 * 60 * 1000L;
+    private long tombstonePurgeIntervalMillis = 60 * 60 * 1000L;
+}
@@ -0,0 +1,16 @@
+package notetakingapplication.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.write-behind")
+public class WriteBehindProperties {
+    private boolean enabled = false;
+    private long flushIntervalMillis = 200;
+    private String journalPath = "data/toggle-journal.bin";
+    private int journalSizeBytes = 4 * 1024 * 1024;
+    private boolean syncOnAppend = false;
+}
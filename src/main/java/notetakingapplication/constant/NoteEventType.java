@@ -0,0 +1,9 @@
+package notetakingapplication.constant;
+
+public enum NoteEventType {
+    ADDED,
+    UPDATED,
+    DELETED,
+    FAVOURITE_TOGGLED,
+    SOFT_DELETE_TOGGLED
+}
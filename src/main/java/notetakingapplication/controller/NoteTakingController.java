@@ -4,8 +4,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import notetakingapplication.constant.Folder;
 import notetakingapplication.contract.request.NoteTakingRequest;
+import notetakingapplication.event.NoteEventBroadcaster;
 import notetakingapplication.model.Note;
 import notetakingapplication.service.NoteTakingService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,10 +16,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -25,70 +30,86 @@ import java.util.List;
 @RequestMapping("/notes")
 @RequiredArgsConstructor
 public class NoteTakingController {
+    public static final String OWNER_HEADER = "X-User-Id";
+    public static final String OWNER_PARAM = "userId";
+
     private final NoteTakingService noteTakingService;
+    private final NoteEventBroadcaster noteEventBroadcaster;
 
     @PostMapping
-    public @ResponseBody Note addNotes(@Valid @RequestBody NoteTakingRequest request) {
-        return this.noteTakingService.addNotes(request);
+    public @ResponseBody Note addNotes(@RequestHeader(OWNER_HEADER) String ownerId, @Valid @RequestBody NoteTakingRequest request) {
+        return this.noteTakingService.addNotes(ownerId, request);
     }
 
     @GetMapping
-    public @ResponseBody List<Note> getAllNotes() {
-        return noteTakingService.getAllNotesSortedByUpdatedDate();
+    public @ResponseBody List<Note> getAllNotes(@RequestHeader(OWNER_HEADER) String ownerId) {
+        return noteTakingService.getAllNotesSortedByUpdatedDate(ownerId);
     }
 
     @GetMapping("/{id}")
-    public @ResponseBody Note getNoteById(@PathVariable Long id) {
-        return this.noteTakingService.getNoteById(id);
+    public @ResponseBody Note getNoteById(@RequestHeader(OWNER_HEADER) String ownerId, @PathVariable Long id) {
+        return this.noteTakingService.getNoteById(ownerId, id);
     }
 
     @PutMapping("/{id}")
     public @ResponseBody Note updateNoteById(
-            @PathVariable long id, @Valid @RequestBody NoteTakingRequest request) {
-        return noteTakingService.updateNoteById(id, request);
+            @RequestHeader(OWNER_HEADER) String ownerId, @PathVariable long id, @Valid @RequestBody NoteTakingRequest request) {
+        return noteTakingService.updateNoteById(ownerId, id, request);
     }
 
     @DeleteMapping("/{id}")
-    public @ResponseBody long deleteNoteById(@PathVariable long id) {
-        noteTakingService.deleteNoteById(id);
+    public @ResponseBody long deleteNoteById(@RequestHeader(OWNER_HEADER) String ownerId, @PathVariable long id) {
+        noteTakingService.deleteNoteById(ownerId, id);
         return id;
     }
 
     @PutMapping("/toggleFavorite/{noteId}")
-    public Note toggleFavorite(@PathVariable Long noteId) {
-        Note isToggled = noteTakingService.toggleFavorite(noteId);
+    public Note toggleFavorite(@RequestHeader(OWNER_HEADER) String ownerId, @PathVariable Long noteId) {
+        Note isToggled = noteTakingService.toggleFavorite(ownerId, noteId);
         return isToggled;
     }
 
     @GetMapping("/favorites")
-    public @ResponseBody List<Note> getAllFavoriteNotes(@RequestParam String title) {
-        return noteTakingService.getAllFavoriteNotes(title);
+    public @ResponseBody List<Note> getAllFavoriteNotes(@RequestHeader(OWNER_HEADER) String ownerId, @RequestParam String title) {
+        return noteTakingService.getAllFavoriteNotes(ownerId, title);
     }
 
     @DeleteMapping("/toggleSoftDelete/{noteId}")
-    public @ResponseBody long toggleSoftDelete(@PathVariable Long noteId) {
-        noteTakingService.toggleSoftDelete(noteId);
+    public @ResponseBody long toggleSoftDelete(@RequestHeader(OWNER_HEADER) String ownerId, @PathVariable Long noteId) {
+        noteTakingService.toggleSoftDelete(ownerId, noteId);
         return noteId;
     }
 
     @GetMapping("/deleted")
-    public @ResponseBody List<Note> getAllDeletedNotes(@RequestParam String title) {
-        return noteTakingService.getAllDeletedNotesSortedByUpdatedDate(title);
+    public @ResponseBody List<Note> getAllDeletedNotes(@RequestHeader(OWNER_HEADER) String ownerId, @RequestParam String title) {
+        return noteTakingService.getAllDeletedNotesSortedByUpdatedDate(ownerId, title);
     }
 
     @GetMapping("/undeleted")
-    public @ResponseBody List<Note> getAllUndeletedNotes() {
-        return noteTakingService.getAllUndeletedNotesSortedByUpdatedDate();
+    public @ResponseBody List<Note> getAllUndeletedNotes(@RequestHeader(OWNER_HEADER) String ownerId) {
+        return noteTakingService.getAllUndeletedNotesSortedByUpdatedDate(ownerId);
     }
 
     @GetMapping("/byFolder/{folder}")
-    public @ResponseBody List<Note> getAllNotesByFolder(@PathVariable Folder folder, @RequestParam String title) {
-        return noteTakingService.getAllNotesByFolder(folder,title);
+    public @ResponseBody List<Note> getAllNotesByFolder(@RequestHeader(OWNER_HEADER) String ownerId, @PathVariable Folder folder, @RequestParam String title) {
+        return noteTakingService.getAllNotesByFolder(ownerId, folder, title);
     }
 
     @GetMapping("/search")
-    public @ResponseBody List<Note> searchNotesByTitle(@RequestParam String title) {
-        return noteTakingService.searchNotesByTitle(title);
+    public @ResponseBody List<Note> searchNotesByTitle(@RequestHeader(OWNER_HEADER) String ownerId, @RequestParam String title) {
+        return noteTakingService.searchNotesByTitle(ownerId, title);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToEvents(@RequestHeader(value = OWNER_HEADER, required = false) String ownerHeader,
+                                        @RequestParam(value = OWNER_PARAM, required = false) String ownerParam)
+            throws MissingServletRequestParameterException {
+        // Browsers' EventSource cannot set request headers, so the owner may also be passed as a query parameter.
+        String ownerId = ownerHeader != null ? ownerHeader : ownerParam;
+        if (ownerId == null) {
+            throw new MissingServletRequestParameterException(OWNER_PARAM, "String");
+        }
+        return noteEventBroadcaster.subscribe(ownerId);
     }
 
 }
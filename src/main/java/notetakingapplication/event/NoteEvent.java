@@ -0,0 +1,13 @@
+package notetakingapplication.event;
+
+import lombok.Value;
+import notetakingapplication.constant.NoteEventType;
+import notetakingapplication.model.Note;
+
+@Value
+public class NoteEvent {
+    NoteEventType type;
+    String ownerId;
+    long noteId;
+    Note note;
+}
@@ -0,0 +1,206 @@
+package notetakingapplication.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import notetakingapplication.config.EventStreamProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes {@link NoteEvent}s to each owner's connected SSE clients. Idle connections hold no
+ * thread (they are parked servlet async requests); events are queued per connection in a bounded
+ * buffer and drained by a fixed sender pool, one sender per connection at a time. Stalled clients
+ * are evicted by whoever offers them the next event or heartbeat, without waiting on their write:
+ * when their buffer overflows, or when a write has been blocked for longer than the write timeout.
+ * The blocked write itself fails once Tomcat's socket write timeout
+ * ({@code server.tomcat.connection-timeout}) expires, so a stalled client holds at most one sender
+ * for that long, and the sender that owns a connection is the only one that ever completes it.
+ */
+@Component
+public class NoteEventBroadcaster {
+    private final EventStreamProperties eventStreamProperties;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService sender;
+    private final Counter evictedSubscribers;
+
+    public NoteEventBroadcaster(EventStreamProperties eventStreamProperties, MeterRegistry meterRegistry) {
+        this.eventStreamProperties = eventStreamProperties;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("note-events-sender-");
+        threadFactory.setDaemon(true);
+        this.sender = Executors.newFixedThreadPool(eventStreamProperties.getSenderThreads(), threadFactory);
+        this.evictedSubscribers = Counter.builder("notes.events.evicted").register(meterRegistry);
+        Gauge.builder("notes.events.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String ownerId) {
+        return register(ownerId, new SseEmitter(eventStreamProperties.getTimeoutMillis()));
+    }
+
+    SseEmitter register(String ownerId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(ownerId, emitter, new ArrayBlockingQueue<>(eventStreamProperties.getBufferSize()));
+        subscribers.compute(ownerId, (owner, owned) -> {
+            Set<Subscriber> updated = owned != null ? owned : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        return emitter;
+    }
+
+    // Published after the writing transaction commits, so clients never see a change that rolls back.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(NoteEvent event) {
+        for (Subscriber subscriber : subscribers.getOrDefault(event.getOwnerId(), Collections.emptySet())) {
+            // Ids are a per-connection sequence, so they are enqueued in order under the subscriber's lock.
+            synchronized (subscriber) {
+                offer(subscriber, SseEmitter.event()
+                        .id(Long.toString(++subscriber.sequence))
+                        .name(event.getType().name())
+                        .data(event));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notes.events.heartbeat-interval-millis:30000}")
+    public void heartbeat() {
+        subscribers.values().forEach(owned -> owned.forEach(subscriber ->
+                offer(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.values().forEach(owned -> owned.forEach(this::close));
+        sender.shutdown();
+    }
+
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (isStalled(subscriber) || !subscriber.queue.offer(event)) {
+            evict(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private boolean isStalled(Subscriber subscriber) {
+        long writeStartedAt = subscriber.writeStartedAt;
+        return writeStartedAt != 0
+                && System.nanoTime() - writeStartedAt > TimeUnit.MILLISECONDS.toNanos(eventStreamProperties.getWriteTimeoutMillis());
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                send(subscriber, event);
+            }
+            if (subscriber.closed.get()) {
+                // Keeps the draining flag set, so no other sender touches the closed connection.
+                finish(subscriber);
+                return;
+            }
+            subscriber.draining.set(false);
+            // Re-check so an event offered between the last poll and clearing the flag is not stranded.
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        subscriber.writeStartedAt = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | RuntimeException ex) {
+            // The container completes a connection whose write failed.
+            subscriber.failed = true;
+            subscriber.closed.set(true);
+            remove(subscriber);
+        } finally {
+            subscriber.writeStartedAt = 0;
+        }
+    }
+
+    private void finish(Subscriber subscriber) {
+        subscriber.queue.clear();
+        if (!subscriber.failed) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            evictedSubscribers.increment();
+            disconnect(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            disconnect(subscriber);
+        }
+    }
+
+    // Completing waits for a write still blocked on the connection, so it is left to the sender that owns it.
+    private void disconnect(Subscriber subscriber) {
+        remove(subscriber);
+        schedule(subscriber);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.ownerId, (owner, owned) -> {
+            if (owned.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return owned.isEmpty() ? null : owned;
+        });
+    }
+
+    private static class Subscriber {
+        private final String ownerId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long writeStartedAt;
+        private volatile boolean failed;
+        private long sequence;
+
+        private Subscriber(String ownerId, SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> queue) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
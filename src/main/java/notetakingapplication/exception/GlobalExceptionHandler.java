@@ -21,6 +21,20 @@ public class GlobalExceptionHandler {
         return "Sorry, " + ex.getMessage();
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ResponseBody
+    public String handleRateLimitExceededException(RateLimitExceededException ex) {
+        return "Sorry, " + ex.getMessage();
+    }
+
+    @ExceptionHandler(QuotaExceededException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    @ResponseBody
+    public String handleQuotaExceededException(QuotaExceededException ex) {
+        return "Sorry, " + ex.getMessage();
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -0,0 +1,240 @@
+package notetakingapplication.index;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import notetakingapplication.config.IndexProperties;
+import notetakingapplication.snapshot.NoteMetadata;
+import notetakingapplication.snapshot.NoteMetadataListener;
+import notetakingapplication.snapshot.NoteMetadataStore;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory index of note metadata laid out in columns, one set per owner: ids, flags,
+ * folder ordinals and {@code updatedAt} live in primitive arrays and titles are lower-cased once on
+ * the way in, so a search only touches the searching owner's notes. Owners with more notes than
+ * the split threshold are scanned in parallel on a fork-join pool, each leaf keeping only the
+ * {@code limit} most recently updated matches, so no request allocates per-note objects or sorts
+ * the full result.
+ *
+ * <p>The index is fed by the {@link NoteMetadataStore}, which applies local writes as they commit
+ * and writes from other instances on its refresh interval, so the store must be enabled too. The
+ * index only selects candidates: callers load them from the database and re-check them with
+ * {@link NoteQuery#matches}, so a stale entry can at worst leave out a note written on another
+ * instance during the last refresh interval. Searches share the owner's read lock; the rare writes
+ * take its write lock and reuse the slots of deleted notes.
+ */
+@Slf4j
+@Component
+@DependsOn("noteMetadataStore")
+public class ColumnarNoteIndex implements NoteMetadataListener {
+    private static final byte LIVE = 1;
+    private static final byte FAVOURITE = 2;
+    private static final byte DELETED = 4;
+    private static final byte NO_FOLDER = -1;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final IndexProperties indexProperties;
+    private final NoteMetadataStore noteMetadataStore;
+    private final Map<String, OwnerColumns> owners = new ConcurrentHashMap<>();
+    private final Map<Long, String> noteOwners = new ConcurrentHashMap<>();
+    private final ForkJoinPool pool;
+
+    public ColumnarNoteIndex(IndexProperties indexProperties, NoteMetadataStore noteMetadataStore) {
+        this.indexProperties = indexProperties;
+        this.noteMetadataStore = noteMetadataStore;
+        this.pool = new ForkJoinPool(indexProperties.getParallelism());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (noteMetadataStore == null || !noteMetadataStore.isEnabled()) {
+            throw new IllegalStateException("notes.index.enabled requires notes.snapshot.enabled");
+        }
+        noteMetadataStore.addListener(this);
+        putAll(noteMetadataStore.values());
+        log.info("Indexed {} notes of {} owners", noteOwners.size(), owners.size());
+    }
+
+    public boolean isEnabled() {
+        return indexProperties.isEnabled();
+    }
+
+    public void putAll(Collection<NoteMetadata> notes) {
+        notes.forEach(this::put);
+    }
+
+    @Override
+    public void put(NoteMetadata note) {
+        if (note.getOwnerId() == null) {
+            // Notes without an owner are never listed.
+            remove(note.getId());
+            return;
+        }
+        String previousOwner = noteOwners.put(note.getId(), note.getOwnerId());
+        if (previousOwner != null && !previousOwner.equals(note.getOwnerId())) {
+            owners.get(previousOwner).remove(note.getId());
+        }
+        owners.computeIfAbsent(note.getOwnerId(), owner -> new OwnerColumns()).write(note);
+    }
+
+    @Override
+    public void remove(long id) {
+        String owner = noteOwners.remove(id);
+        if (owner != null) {
+            owners.get(owner).remove(id);
+        }
+    }
+
+    /** Returns the ids of at most {@code limit} matching notes, most recently updated first. */
+    public long[] search(NoteQuery query, int limit) {
+        OwnerColumns columns = owners.get(query.getOwnerId());
+        return columns == null ? new long[0] : columns.search(query, limit);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private class OwnerColumns {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private long[] updatedAt = new long[INITIAL_CAPACITY];
+        private byte[] flags = new byte[INITIAL_CAPACITY];
+        private byte[] folders = new byte[INITIAL_CAPACITY];
+        private String[] titles = new String[INITIAL_CAPACITY];
+        private int size;
+
+        private void write(NoteMetadata note) {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slots.get(note.getId());
+                if (slot == null) {
+                    slot = freeSlots.isEmpty() ? size++ : freeSlots.pop();
+                    ensureCapacity(size);
+                    slots.put(note.getId(), slot);
+                }
+                ids[slot] = note.getId();
+                updatedAt[slot] = toMicros(note.getUpdatedAt());
+                flags[slot] = (byte) (LIVE | (note.isFavourite() ? FAVOURITE : 0) | (note.isDeleted() ? DELETED : 0));
+                folders[slot] = note.getFolder() == null ? NO_FOLDER : (byte) note.getFolder().ordinal();
+                titles[slot] = note.getTitle() == null ? "" : note.getTitle().toLowerCase();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slots.remove(id);
+                if (slot != null) {
+                    flags[slot] = 0;
+                    titles[slot] = null;
+                    freeSlots.push(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private long[] search(NoteQuery query, int limit) {
+            lock.readLock().lock();
+            try {
+                Scan scan = new Scan(query, limit, 0, size);
+                TopK top = size <= indexProperties.getSplitThreshold() ? scan.compute() : pool.invoke(scan);
+                return top.toSortedIds();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int grown = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, grown);
+            updatedAt = Arrays.copyOf(updatedAt, grown);
+            flags = Arrays.copyOf(flags, grown);
+            folders = Arrays.copyOf(folders, grown);
+            titles = Arrays.copyOf(titles, grown);
+        }
+
+        private class Scan extends RecursiveTask<TopK> {
+            private final byte mask;
+            private final byte expected;
+            private final byte folder;
+            private final String title;
+            private final int limit;
+            private final int from;
+            private final int to;
+
+            private Scan(NoteQuery query, int limit, int from, int to) {
+                this.mask = (byte) (LIVE | (query.getFavourite() != null ? FAVOURITE : 0) | (query.getDeleted() != null ? DELETED : 0));
+                this.expected = (byte) (LIVE | (Boolean.TRUE.equals(query.getFavourite()) ? FAVOURITE : 0)
+                        | (Boolean.TRUE.equals(query.getDeleted()) ? DELETED : 0));
+                this.folder = query.getFolder() == null ? NO_FOLDER : (byte) query.getFolder().ordinal();
+                this.title = query.getTitle() == null || query.getTitle().isEmpty() ? null : query.getTitle().toLowerCase();
+                this.limit = limit;
+                this.from = from;
+                this.to = to;
+            }
+
+            private Scan(Scan parent, int from, int to) {
+                this.mask = parent.mask;
+                this.expected = parent.expected;
+                this.folder = parent.folder;
+                this.title = parent.title;
+                this.limit = parent.limit;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected TopK compute() {
+                if (to - from > indexProperties.getSplitThreshold()) {
+                    int middle = (from + to) >>> 1;
+                    Scan left = new Scan(this, from, middle);
+                    left.fork();
+                    TopK right = new Scan(this, middle, to).compute();
+                    return left.join().merge(right);
+                }
+                TopK top = new TopK(limit);
+                for (int i = from; i < to; i++) {
+                    if ((flags[i] & mask) == expected
+                            && (folder == NO_FOLDER || folders[i] == folder)
+                            && (title == null || titles[i].contains(title))) {
+                        top.offer(updatedAt[i], ids[i]);
+                    }
+                }
+                return top;
+            }
+        }
+    }
+}
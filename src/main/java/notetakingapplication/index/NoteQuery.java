@@ -0,0 +1,27 @@
+package notetakingapplication.index;
+
+import lombok.Builder;
+import lombok.Value;
+import notetakingapplication.constant.Folder;
+import notetakingapplication.model.Note;
+
+/** Filter for {@link ColumnarNoteIndex#search}; a null field matches any value. */
+@Value
+@Builder
+public class NoteQuery {
+    String ownerId;
+    Boolean favourite;
+    Boolean deleted;
+    Folder folder;
+    String title;
+
+    /** Re-checks a note loaded from the database, which may have changed since the index saw it. */
+    public boolean matches(Note note) {
+        return ownerId.equals(note.getOwnerId())
+                && (favourite == null || favourite == note.isFavourite())
+                && (deleted == null || deleted == note.isDeleted())
+                && (folder == null || folder == note.getFolder())
+                && (title == null || title.isEmpty()
+                || note.getTitle() != null && note.getTitle().toLowerCase().contains(title.toLowerCase()));
+    }
+}
@@ -0,0 +1,103 @@
+package notetakingapplication.index;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap of note ids keyed by {@code updatedAt}, keeping the {@code limit} most recently
+ * updated notes offered to it. Ties are broken by the higher id so results are deterministic.
+ */
+class TopK {
+    private final int limit;
+    private long[] keys;
+    private long[] ids;
+    private int count;
+
+    TopK(int limit) {
+        this.limit = limit;
+        int capacity = Math.min(limit, 64);
+        this.keys = new long[capacity];
+        this.ids = new long[capacity];
+    }
+
+    void offer(long key, long id) {
+        if (count < limit) {
+            if (count == keys.length) {
+                int capacity = (int) Math.min(limit, keys.length * 2L);
+                keys = Arrays.copyOf(keys, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            keys[count] = key;
+            ids[count] = id;
+            siftUp(count++);
+        } else if (limit > 0 && greater(key, id, keys[0], ids[0])) {
+            keys[0] = key;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    TopK merge(TopK other) {
+        TopK larger = count >= other.count ? this : other;
+        TopK smaller = larger == this ? other : this;
+        for (int i = 0; i < smaller.count; i++) {
+            larger.offer(smaller.keys[i], smaller.ids[i]);
+        }
+        return larger;
+    }
+
+    /** Drains the heap into ids ordered from the most to the least recently updated. */
+    long[] toSortedIds() {
+        long[] sorted = new long[count];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = ids[0];
+            count--;
+            keys[0] = keys[count];
+            ids[0] = ids[count];
+            siftDown(0);
+        }
+        return sorted;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!greater(keys[parent], ids[parent], keys[index], ids[index])) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < count && greater(keys[smallest], ids[smallest], keys[left], ids[left])) {
+                smallest = left;
+            }
+            if (right < count && greater(keys[smallest], ids[smallest], keys[right], ids[right])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(smallest, index);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        long id = ids[a];
+        keys[a] = keys[b];
+        ids[a] = ids[b];
+        keys[b] = key;
+        ids[b] = id;
+    }
+
+    private static boolean greater(long key, long id, long otherKey, long otherId) {
+        return key > otherKey || (key == otherKey && id > otherId);
+    }
+}
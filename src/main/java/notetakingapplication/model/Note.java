@@ -1,20 +1,34 @@
 package notetakingapplication.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import notetakingapplication.constant.Folder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_note_owner_deleted_updated", columnList = "owner_id, is_deleted, updated_at"),
+        @Index(name = "idx_note_modified", columnList = "modified_at")
+})
 @Getter
 @Builder
 @AllArgsConstructor
@@ -23,12 +37,21 @@ public class Note {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
+    @Setter
+    @Column(name = "owner_id")
+    private String ownerId;
     private String title;
     private String content;
     private LocalDateTime createdAt = LocalDateTime.now();
+    @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
     private boolean isFavourite;
+    @Column(name = "is_deleted")
     private boolean isDeleted;
     @Enumerated(EnumType.STRING)
     private Folder folder;
+    // Moves on every write, including toggles, unlike updatedAt which only tracks content edits.
+    @JsonIgnore
+    @Column(name = "modified_at")
+    private LocalDateTime modifiedAt = LocalDateTime.now();
 }
@@ -0,0 +1,35 @@
+package notetakingapplication.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a hard-deleted note, kept for {@code notes.snapshot.tombstone-retention-millis} so that
+ * metadata snapshots can drop deleted notes without rescanning the notes table.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_note_tombstone_deleted", columnList = "deleted_at")
+})
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoteTombstone {
+    @Id
+    @Column(name = "note_id")
+    private long noteId;
+    @Column(name = "owner_id")
+    private String ownerId;
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,96 @@
+package notetakingapplication.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient concurrency limit driven by request latency. Latencies are averaged over windows of
+ * {@link #WINDOW_SAMPLES} requests and compared with a slowly moving long-term average, so a mix of
+ * fast and slow endpoints settles into a stable ratio instead of every slow request looking like
+ * queueing. While the window average stays within {@code latencyTolerance} of the long-term one the
+ * limit grows by its square root per window; once requests start queueing it shrinks in proportion
+ * to the slowdown, so excess load is shed before the connection pool is exhausted.
+ */
+public class AdaptiveConcurrencyLimiter {
+    static final int WINDOW_SAMPLES = 25;
+    private static final double LONG_TERM_SMOOTHING = 0.05;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longTermLatencyNanos;
+    private long windowLatencyNanos;
+    private int windowSamples;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double latencyTolerance) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 0 < min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            windowLatencyNanos += latencyNanos;
+            if (++windowSamples < WINDOW_SAMPLES) {
+                return;
+            }
+            double shortTermLatencyNanos = (double) windowLatencyNanos / windowSamples;
+            windowLatencyNanos = 0;
+            windowSamples = 0;
+            updateLimit(shortTermLatencyNanos);
+        }
+    }
+
+    /** Releases a slot without a latency sample, for requests that continue asynchronously. */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void updateLimit(double shortTermLatencyNanos) {
+        if (longTermLatencyNanos == 0) {
+            longTermLatencyNanos = shortTermLatencyNanos;
+        } else {
+            longTermLatencyNanos += (shortTermLatencyNanos - longTermLatencyNanos) * LONG_TERM_SMOOTHING;
+        }
+        // Once a slowdown is over, pull the long-term average back down faster than it rose.
+        if (longTermLatencyNanos > shortTermLatencyNanos * latencyTolerance) {
+            longTermLatencyNanos *= 0.95;
+        }
+        double gradient = Math.max(MIN_GRADIENT,
+                Math.min(1.0, latencyTolerance * longTermLatencyNanos / shortTermLatencyNanos));
+        double target = estimatedLimit * gradient + (gradient == 1.0 ? Math.sqrt(estimatedLimit) : 0);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit + (target - estimatedLimit) * LIMIT_SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
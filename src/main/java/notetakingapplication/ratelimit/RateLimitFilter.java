@@ -0,0 +1,114 @@
+package notetakingapplication.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import notetakingapplication.config.RequestLimitsProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RequestLimitsProperties requestLimitsProperties;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final Counter rateLimitedRequests;
+    private final Counter shedRequests;
+
+    public RateLimitFilter(RequestLimitsProperties requestLimitsProperties, MeterRegistry meterRegistry) {
+        this.requestLimitsProperties = requestLimitsProperties;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                requestLimitsProperties.getInitialConcurrency(),
+                requestLimitsProperties.getMinConcurrency(),
+                requestLimitsProperties.getMaxConcurrency(),
+                requestLimitsProperties.getLatencyTolerance());
+        this.rateLimitedRequests = Counter.builder("notes.requests.rejected")
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+        this.shedRequests = Counter.builder("notes.requests.rejected")
+                .tag("reason", "concurrency_limit")
+                .register(meterRegistry);
+        Gauge.builder("notes.requests.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("notes.requests.in.flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/notes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        TokenBucket bucket = bucketFor(request.getRemoteAddr());
+        if (!bucket.tryAcquire()) {
+            rateLimitedRequests.increment();
+            long retryAfterSeconds = Math.max(1L, (long) Math.ceil(bucket.nanosUntilAvailable() / (double) TimeUnit.SECONDS.toNanos(1)));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "Sorry, too many requests");
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            shedRequests.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1L, "Sorry, the service is overloaded");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                concurrencyLimiter.releaseWithoutSample();
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /** Drops refilled buckets once too many clients are tracked; a full bucket holds no state. */
+    @Scheduled(fixedDelay = 1000)
+    public void evictIdleBuckets() {
+        if (clientBuckets.size() > requestLimitsProperties.getMaxTrackedClients()) {
+            clientBuckets.values().removeIf(TokenBucket::isFull);
+        }
+    }
+
+    int getTrackedClients() {
+        return clientBuckets.size();
+    }
+
+    // Keyed on the remote address: the X-User-Id header is client-supplied, so a client rotating
+    // it would get a fresh bucket on every request. Behind a load balancer the address comes from
+    // X-Forwarded-For, which Tomcat only honours from proxies matching
+    // server.tomcat.remoteip.internal-proxies (private networks by default); deployments whose
+    // proxies sit elsewhere must list them there, or every client shares the proxy's bucket.
+    private TokenBucket bucketFor(String clientKey) {
+        return clientBuckets.computeIfAbsent(clientKey, key -> new TokenBucket(
+                requestLimitsProperties.getBurst(), requestLimitsProperties.getRequestsPerSecond()));
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+}
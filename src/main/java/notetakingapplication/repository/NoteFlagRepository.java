@@ -0,0 +1,11 @@
+package notetakingapplication.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/** Flag writes that evict only the updated notes from the second-level cache. */
+public interface NoteFlagRepository {
+    int updateFavourite(Collection<Long> ids, boolean favourite, LocalDateTime modifiedAt);
+
+    int updateDeleted(Collection<Long> ids, boolean deleted, LocalDateTime modifiedAt);
+}
@@ -0,0 +1,44 @@
+package notetakingapplication.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import notetakingapplication.model.Note;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Writes flags with plain JDBC batches rather than JPQL bulk updates, which make Hibernate
+ * invalidate the whole {@link Note} cache region; only the updated ids are evicted instead.
+ */
+@RequiredArgsConstructor
+public class NoteFlagRepositoryImpl implements NoteFlagRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public int updateFavourite(Collection<Long> ids, boolean favourite, LocalDateTime modifiedAt) {
+        return update("update note set is_favourite = ?, modified_at = ? where id = ?", ids, favourite, modifiedAt);
+    }
+
+    @Override
+    public int updateDeleted(Collection<Long> ids, boolean deleted, LocalDateTime modifiedAt) {
+        return update("update note set is_deleted = ?, modified_at = ? where id = ?", ids, deleted, modifiedAt);
+    }
+
+    private int update(String sql, Collection<Long> ids, boolean value, LocalDateTime modifiedAt) {
+        List<Object[]> rows = ids.stream()
+                .map(id -> new Object[]{value, Timestamp.valueOf(modifiedAt), id})
+                .collect(Collectors.toList());
+        int[] counts = jdbcTemplate.batchUpdate(sql, rows);
+        // Evicted after the rows are written, so a concurrent read cannot cache the old flags again.
+        ids.forEach(id -> entityManagerFactory.getCache().evict(Note.class, id));
+        // Drivers may report batched statements as SUCCESS_NO_INFO (-2) instead of a row count.
+        return IntStream.of(counts).map(count -> Math.max(count, 0)).sum();
+    }
+}
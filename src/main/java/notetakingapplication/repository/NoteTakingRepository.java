@@ -1,14 +1,54 @@
 package notetakingapplication.repository;
 
 import notetakingapplication.model.Note;
+import notetakingapplication.snapshot.NoteMetadata;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface NoteTakingRepository extends JpaRepository<Note, Long> {
-    List<Note> findAllByIsDeletedFalseOrderByUpdatedAtDesc();
+public interface NoteTakingRepository extends JpaRepository<Note, Long>, NoteFlagRepository {
+    List<Note> findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(String ownerId);
 
-    List<Note> findAllByOrderByUpdatedAtDesc();
+    List<Note> findAllByOwnerIdAndIsDeletedTrueOrderByUpdatedAtDesc(String ownerId);
+
+    List<Note> findAllByOwnerIdOrderByUpdatedAtDesc(String ownerId);
+
+    // Looked up by primary key so that repeated reads are served from the second-level entity cache.
+    default Optional<Note> findByIdAndOwnerId(long id, String ownerId) {
+        return findById(id).filter(note -> ownerId.equals(note.getOwnerId()));
+    }
+
+    boolean existsByIdAndOwnerId(long id, String ownerId);
+
+    long countByOwnerId(String ownerId);
+
+    long countByOwnerIdIsNull();
+
+    @Modifying
+    @Transactional
+    @Query("update Note n set n.ownerId = ?1, n.modifiedAt = ?2 where n.ownerId is null")
+    int assignOwnerToUnownedNotes(String ownerId, LocalDateTime modifiedAt);
+
+    // Scalar reads always go to the database, unlike findById, which returns the entity already
+    // loaded in the persistence context or cached in the second-level cache.
+    @Query("select n.isFavourite from Note n where n.id = ?1")
+    Optional<Boolean> findFavouriteById(long id);
+
+    @Query("select n.isDeleted from Note n where n.id = ?1")
+    Optional<Boolean> findDeletedById(long id);
+
+    @Query("select new notetakingapplication.snapshot.NoteMetadata(n.id, n.ownerId, n.title, n.folder, "
+            + "n.isFavourite, n.isDeleted, n.createdAt, n.updatedAt, n.modifiedAt) from Note n")
+    List<NoteMetadata> findAllMetadata();
+
+    @Query("select new notetakingapplication.snapshot.NoteMetadata(n.id, n.ownerId, n.title, n.folder, "
+            + "n.isFavourite, n.isDeleted, n.createdAt, n.updatedAt, n.modifiedAt) from Note n where n.modifiedAt >= ?1")
+    List<NoteMetadata> findMetadataModifiedSince(LocalDateTime since);
 }
@@ -0,0 +1,21 @@
+package notetakingapplication.repository;
+
+import notetakingapplication.model.NoteTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+    List<NoteTombstone> findAllByDeletedAtGreaterThanEqual(LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("delete from NoteTombstone t where t.deletedAt < ?1")
+    int deleteAllDeletedBefore(LocalDateTime before);
+}
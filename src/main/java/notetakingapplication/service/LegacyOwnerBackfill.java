@@ -0,0 +1,44 @@
+package notetakingapplication.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import notetakingapplication.repository.NoteTakingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Assigns notes created before notes had owners to {@code notes.legacy-owner-id}. The
+ * {@code owner_id} column is nullable in the schema because {@code ddl-auto: update} cannot add a
+ * NOT NULL column to a populated table; the service always sets an owner on new notes. The update
+ * bumps {@code modifiedAt}, so the note metadata store, which starts after the backfill, replays the
+ * new owners over an older snapshot.
+ */
+@Slf4j
+@Component
+public class LegacyOwnerBackfill {
+    private final NoteTakingRepository noteTakingRepository;
+    private final String legacyOwnerId;
+
+    public LegacyOwnerBackfill(NoteTakingRepository noteTakingRepository,
+                               @Value("${notes.legacy-owner-id:}") String legacyOwnerId) {
+        this.noteTakingRepository = noteTakingRepository;
+        this.legacyOwnerId = legacyOwnerId;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        if (legacyOwnerId.isBlank()) {
+            long unowned = noteTakingRepository.countByOwnerIdIsNull();
+            if (unowned > 0) {
+                log.warn("{} notes have no owner and are not listed; set notes.legacy-owner-id to assign them", unowned);
+            }
+            return;
+        }
+        int assigned = noteTakingRepository.assignOwnerToUnownedNotes(legacyOwnerId, LocalDateTime.now());
+        if (assigned > 0) {
+            log.info("Assigned {} notes without an owner to {}", assigned, legacyOwnerId);
+        }
+    }
+}
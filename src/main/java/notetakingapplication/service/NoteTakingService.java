@@ -1,96 +1,165 @@
 package notetakingapplication.service;
 
 import lombok.RequiredArgsConstructor;
+import notetakingapplication.config.NoteLimitsProperties;
 import notetakingapplication.constant.Folder;
+import notetakingapplication.constant.NoteEventType;
 import notetakingapplication.contract.request.NoteTakingRequest;
+import notetakingapplication.event.NoteEvent;
+import notetakingapplication.exception.QuotaExceededException;
+import notetakingapplication.exception.RateLimitExceededException;
+import notetakingapplication.index.ColumnarNoteIndex;
+import notetakingapplication.index.NoteQuery;
 import notetakingapplication.model.Note;
+import notetakingapplication.model.NoteTombstone;
+import notetakingapplication.ratelimit.TokenBucket;
 import notetakingapplication.repository.NoteTakingRepository;
+import notetakingapplication.repository.NoteTombstoneRepository;
+import notetakingapplication.writebehind.ToggleWriteBehind;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Service
 @RequiredArgsConstructor
 public class NoteTakingService {
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final NoteTakingRepository noteTakingRepository;
+    private final NoteTombstoneRepository noteTombstoneRepository;
     private final ModelMapper modelMapper;
+    private final NoteLimitsProperties noteLimitsProperties;
+    private final ToggleWriteBehind toggleWriteBehind;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ColumnarNoteIndex columnarNoteIndex;
+    private final Map<String, TokenBucket> writeBuckets = new ConcurrentHashMap<>();
+    private final SingleFlight<List<Object>, Note> noteReads = new SingleFlight<>();
+    private final SingleFlight<List<Object>, List<Note>> listReads = new SingleFlight<>();
 
-    public Note addNotes(NoteTakingRequest request) {
+    public Note addNotes(String ownerId, NoteTakingRequest request) {
+        checkWriteRate(ownerId);
+        if (noteTakingRepository.countByOwnerId(ownerId) >= noteLimitsProperties.getMaxNotesPerOwner()) {
+            throw new QuotaExceededException("Note quota exceeded");
+        }
         Note note = modelMapper.map(request, Note.class);
+        note.setOwnerId(ownerId);
         note = noteTakingRepository.save(note);
+        publish(NoteEventType.ADDED, note);
         return note;
     }
 
-    public List<Note> getAllNotesSortedByUpdatedDate() {
-        return noteTakingRepository.findAllByOrderByUpdatedAtDesc();
+    public List<Note> getAllNotesSortedByUpdatedDate(String ownerId) {
+        return listReads.execute(Arrays.asList("all", ownerId), () -> allNotes(ownerId));
     }
 
-    public Note getNoteById(long id) {
-        Note note = this.noteTakingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Note not found"));
-        return note;
+    public Note getNoteById(String ownerId, long id) {
+        return noteReads.execute(Arrays.asList(ownerId, id),
+                () -> this.noteTakingRepository.findByIdAndOwnerId(id, ownerId)
+                        .map(toggleWriteBehind::apply)
+                        .orElseThrow(() -> new RuntimeException("Note not found")));
     }
 
-    public Note updateNoteById(long id, NoteTakingRequest request) {
-        Note updatedNote = this.noteTakingRepository.findById(id)
+    public Note updateNoteById(String ownerId, long id, NoteTakingRequest request) {
+        checkWriteRate(ownerId);
+        Note updatedNote = this.noteTakingRepository.findByIdAndOwnerId(id, ownerId)
                 .orElseThrow(() -> new RuntimeException("Note not found"));
         updatedNote = Note.builder()
                 .id(updatedNote.getId())
+                .ownerId(updatedNote.getOwnerId())
                 .createdAt(updatedNote.getCreatedAt())
                 .isFavourite(updatedNote.isFavourite())
                 .folder(updatedNote.getFolder())
                 .title(request.getTitle())
                 .content(request.getContent())
                 .updatedAt(LocalDateTime.now())
+                .modifiedAt(LocalDateTime.now())
                 .build();
         noteTakingRepository.save(updatedNote);
+        publish(NoteEventType.UPDATED, updatedNote);
         return updatedNote;
     }
 
-    public long deleteNoteById(long id) {
-        if (!noteTakingRepository.existsById(id)) {
+    @Transactional
+    public long deleteNoteById(String ownerId, long id) {
+        checkWriteRate(ownerId);
+        if (!noteTakingRepository.existsByIdAndOwnerId(id, ownerId)) {
             throw new RuntimeException("Note not found");
         }
         noteTakingRepository.deleteById(id);
+        noteTombstoneRepository.save(NoteTombstone.builder()
+                .noteId(id)
+                .ownerId(ownerId)
+                .deletedAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new NoteEvent(NoteEventType.DELETED, ownerId, id, null));
         return id;
     }
 
-    public Note toggleFavorite(Long noteId) {
-        Note note = this.noteTakingRepository.findById(noteId)
+    public Note toggleFavorite(String ownerId, Long noteId) {
+        checkWriteRate(ownerId);
+        Note note = this.noteTakingRepository.findByIdAndOwnerId(noteId, ownerId)
                 .orElseThrow(() -> new RuntimeException("Note not found"));
+        if (toggleWriteBehind.isEnabled()) {
+            note = toggleWriteBehind.toggleFavourite(note);
+            publish(NoteEventType.FAVOURITE_TOGGLED, note);
+            return note;
+        }
         note = Note.builder()
                 .id(note.getId())
+                .ownerId(note.getOwnerId())
                 .title(note.getTitle())
                 .content(note.getContent())
                 .createdAt(note.getCreatedAt())
                 .updatedAt(note.getUpdatedAt())
                 .folder(note.getFolder())
                 .isFavourite(!note.isFavourite())
+                .modifiedAt(LocalDateTime.now())
                 .build();
         noteTakingRepository.save(note);
+        publish(NoteEventType.FAVOURITE_TOGGLED, note);
         return note;
     }
 
-    public List<Note> getAllFavoriteNotes(String title) {
-        List<Note> allNotes = this.noteTakingRepository.findAll();
-        List<Note> favoriteNotes = allNotes.stream()
+    public List<Note> getAllFavoriteNotes(String ownerId, String title) {
+        return listReads.execute(Arrays.asList("favorites", ownerId, title), () -> loadFavoriteNotes(ownerId, title));
+    }
+
+    private List<Note> loadFavoriteNotes(String ownerId, String title) {
+        if (columnarNoteIndex.isEnabled()) {
+            return indexedNotes(NoteQuery.builder().ownerId(ownerId).deleted(false).favourite(true).title(title).build());
+        }
+        List<Note> undeletedNotes = undeletedNotes(ownerId);
+        List<Note> favoriteNotes = undeletedNotes.stream()
                 .filter(Note::isFavourite)
-                .filter(note -> !note.isDeleted())
                 .filter(note -> note.getTitle().toLowerCase().contains(title.toLowerCase()))
-                .sorted(Comparator.comparing(Note::getUpdatedAt).reversed())
                 .collect(Collectors.toList());
         return favoriteNotes;
     }
 
-    public long toggleSoftDelete(Long noteId) {
-        Note note = this.noteTakingRepository.findById(noteId)
+    public long toggleSoftDelete(String ownerId, Long noteId) {
+        checkWriteRate(ownerId);
+        Note note = this.noteTakingRepository.findByIdAndOwnerId(noteId, ownerId)
                 .orElseThrow(() -> new RuntimeException("Note not found"));
+        if (toggleWriteBehind.isEnabled()) {
+            publish(NoteEventType.SOFT_DELETE_TOGGLED, toggleWriteBehind.toggleDeleted(note));
+            return noteId;
+        }
         note = Note.builder()
                 .id(note.getId())
+                .ownerId(note.getOwnerId())
                 .title(note.getTitle())
                 .content(note.getContent())
                 .createdAt(note.getCreatedAt())
@@ -98,41 +167,140 @@ public class NoteTakingService {
                 .isFavourite(note.isFavourite())
                 .folder(note.getFolder())
                 .isDeleted(!note.isDeleted())
+                .modifiedAt(LocalDateTime.now())
                 .build();
         noteTakingRepository.save(note);
+        publish(NoteEventType.SOFT_DELETE_TOGGLED, note);
         return noteId;
     }
 
-    public List<Note> getAllDeletedNotesSortedByUpdatedDate(String title) {
-        List<Note> allNotes = this.noteTakingRepository.findAll();
-        List<Note> getAllDeletedNotes = allNotes.stream()
-                .filter(note -> note.isDeleted())
+    public List<Note> getAllDeletedNotesSortedByUpdatedDate(String ownerId, String title) {
+        return listReads.execute(Arrays.asList("deleted", ownerId, title), () -> loadDeletedNotes(ownerId, title));
+    }
+
+    private List<Note> loadDeletedNotes(String ownerId, String title) {
+        if (columnarNoteIndex.isEnabled()) {
+            return indexedNotes(NoteQuery.builder().ownerId(ownerId).deleted(true).title(title).build());
+        }
+        List<Note> deletedNotes = deletedNotes(ownerId);
+        List<Note> getAllDeletedNotes = deletedNotes.stream()
                 .filter(note -> note.getTitle().toLowerCase().contains(title.toLowerCase()))
-                .sorted(Comparator.comparing(Note::getUpdatedAt).reversed())
                 .collect(Collectors.toList());
         return getAllDeletedNotes;
     }
 
-    public List<Note> getAllUndeletedNotesSortedByUpdatedDate() {
-        return noteTakingRepository.findAllByIsDeletedFalseOrderByUpdatedAtDesc();
+    public List<Note> getAllUndeletedNotesSortedByUpdatedDate(String ownerId) {
+        return listReads.execute(Arrays.asList("undeleted", ownerId), () -> undeletedNotes(ownerId));
     }
 
 
-    public List<Note> getAllNotesByFolder(Folder folder, String title) {
-        List<Note> allNotes = this.noteTakingRepository.findAll();
-        List<Note> notesByFolder = allNotes.stream()
+    public List<Note> getAllNotesByFolder(String ownerId, Folder folder, String title) {
+        return listReads.execute(Arrays.asList("folder", ownerId, folder, title), () -> loadNotesByFolder(ownerId, folder, title));
+    }
+
+    private List<Note> loadNotesByFolder(String ownerId, Folder folder, String title) {
+        if (columnarNoteIndex.isEnabled()) {
+            return indexedNotes(NoteQuery.builder().ownerId(ownerId).deleted(false).folder(folder).title(title).build());
+        }
+        List<Note> undeletedNotes = undeletedNotes(ownerId);
+        List<Note> notesByFolder = undeletedNotes.stream()
                 .filter(note -> note.getTitle().toLowerCase().contains(title.toLowerCase()))
-                .filter(note -> note.getFolder() == folder && !note.isDeleted())
+                .filter(note -> note.getFolder() == folder)
                 .collect(Collectors.toList());
         return notesByFolder;
     }
 
-    public List<Note> searchNotesByTitle(String title) {
-        List<Note> allNotes = this.noteTakingRepository.findAll();
-        List<Note> notesByTitle = allNotes.stream()
-                .filter(note -> note.getTitle().toLowerCase().contains(title.toLowerCase()) && !note.isDeleted())
+    public List<Note> searchNotesByTitle(String ownerId, String title) {
+        return listReads.execute(Arrays.asList("search", ownerId, title), () -> loadNotesByTitle(ownerId, title));
+    }
+
+    private List<Note> loadNotesByTitle(String ownerId, String title) {
+        if (columnarNoteIndex.isEnabled()) {
+            return indexedNotes(NoteQuery.builder().ownerId(ownerId).deleted(false).title(title).build());
+        }
+        List<Note> undeletedNotes = undeletedNotes(ownerId);
+        List<Note> notesByTitle = undeletedNotes.stream()
+                .filter(note -> note.getTitle().toLowerCase().contains(title.toLowerCase()))
                 .collect(Collectors.toList());
         return notesByTitle;
     }
 
+    private List<Note> allNotes(String ownerId) {
+        if (columnarNoteIndex.isEnabled()) {
+            return indexedNotes(NoteQuery.builder().ownerId(ownerId).build());
+        }
+        if (toggleWriteBehind.hasPending(ownerId)) {
+            return ownerNotes(ownerId, note -> true);
+        }
+        return noteTakingRepository.findAllByOwnerIdOrderByUpdatedAtDesc(ownerId);
+    }
+
+    private List<Note> undeletedNotes(String ownerId) {
+        if (columnarNoteIndex.isEnabled()) {
+            return indexedNotes(NoteQuery.builder().ownerId(ownerId).deleted(false).build());
+        }
+        if (toggleWriteBehind.hasPending(ownerId)) {
+            return ownerNotes(ownerId, note -> !note.isDeleted());
+        }
+        return noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(ownerId);
+    }
+
+    private List<Note> deletedNotes(String ownerId) {
+        if (columnarNoteIndex.isEnabled()) {
+            return indexedNotes(NoteQuery.builder().ownerId(ownerId).deleted(true).build());
+        }
+        if (toggleWriteBehind.hasPending(ownerId)) {
+            return ownerNotes(ownerId, Note::isDeleted);
+        }
+        return noteTakingRepository.findAllByOwnerIdAndIsDeletedTrueOrderByUpdatedAtDesc(ownerId);
+    }
+
+    private List<Note> ownerNotes(String ownerId, Predicate<Note> filter) {
+        return noteTakingRepository.findAllByOwnerIdOrderByUpdatedAtDesc(ownerId).stream()
+                .map(toggleWriteBehind::apply)
+                .filter(filter)
+                .collect(Collectors.toList());
+    }
+
+    private List<Note> indexedNotes(NoteQuery query) {
+        // Not truncated: the per-owner quota is not a hard cap, and the database path returns every note.
+        long[] ids = columnarNoteIndex.search(query, Integer.MAX_VALUE);
+        Map<Long, Note> notes = new HashMap<>();
+        for (int from = 0; from < ids.length; from += ID_BATCH_SIZE) {
+            // Chunked to stay within the bind parameter limit of the IN list.
+            noteTakingRepository.findAllById(Arrays.stream(ids, from, Math.min(from + ID_BATCH_SIZE, ids.length))
+                            .boxed()
+                            .collect(Collectors.toList()))
+                    .forEach(note -> notes.put(note.getId(), note));
+        }
+        return LongStream.of(ids)
+                .mapToObj(notes::get)
+                .filter(Objects::nonNull)
+                .map(toggleWriteBehind::apply)
+                .filter(query::matches)
+                .collect(Collectors.toList());
+    }
+
+    private void publish(NoteEventType type, Note note) {
+        eventPublisher.publishEvent(new NoteEvent(type, note.getOwnerId(), note.getId(), note));
+    }
+
+    /** Drops refilled write buckets, which hold no state, so rotating owner ids cannot grow the map without bound. */
+    @Scheduled(fixedDelay = 1000)
+    public void evictIdleWriteBuckets() {
+        writeBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    int getTrackedWriteBuckets() {
+        return writeBuckets.size();
+    }
+
+    private void checkWriteRate(String ownerId) {
+        TokenBucket bucket = writeBuckets.computeIfAbsent(ownerId, owner -> new TokenBucket(
+                noteLimitsProperties.getWriteBurst(), noteLimitsProperties.getWritesPerSecond()));
+        if (!bucket.tryAcquire()) {
+            throw new RateLimitExceededException("Too many changes, try again later");
+        }
+    }
+
 }
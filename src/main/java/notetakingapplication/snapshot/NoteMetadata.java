@@ -0,0 +1,27 @@
+package notetakingapplication.snapshot;
+
+import lombok.Value;
+import lombok.With;
+import notetakingapplication.constant.Folder;
+import notetakingapplication.model.Note;
+
+import java.time.LocalDateTime;
+
+@Value
+@With
+public class NoteMetadata {
+    long id;
+    String ownerId;
+    String title;
+    Folder folder;
+    boolean favourite;
+    boolean deleted;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    LocalDateTime modifiedAt;
+
+    public static NoteMetadata of(Note note) {
+        return new NoteMetadata(note.getId(), note.getOwnerId(), note.getTitle(), note.getFolder(),
+                note.isFavourite(), note.isDeleted(), note.getCreatedAt(), note.getUpdatedAt(), note.getModifiedAt());
+    }
+}
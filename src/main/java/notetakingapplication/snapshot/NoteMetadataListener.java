@@ -0,0 +1,8 @@
+package notetakingapplication.snapshot;
+
+/** Receives the changes applied to a {@link NoteMetadataStore}, in order for each note. */
+public interface NoteMetadataListener {
+    void put(NoteMetadata note);
+
+    void remove(long id);
+}
@@ -0,0 +1,227 @@
+package notetakingapplication.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import notetakingapplication.config.SnapshotProperties;
+import notetakingapplication.constant.NoteEventType;
+import notetakingapplication.event.NoteEvent;
+import notetakingapplication.model.NoteTombstone;
+import notetakingapplication.repository.NoteTakingRepository;
+import notetakingapplication.repository.NoteTombstoneRepository;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Optional in-memory copy of every note's metadata, periodically saved to a {@link NoteSnapshotFile}.
+ * On startup the snapshot is loaded and only rows modified since its high-water {@code modifiedAt}
+ * are read back from the database, together with the {@link NoteTombstone}s of notes deleted since,
+ * instead of loading the whole table.
+ *
+ * <p>The same incremental read runs every {@code notes.snapshot.refresh-interval-millis}, so writes
+ * made by other instances show up within that interval, while local writes are applied as soon as
+ * they commit. The high-water is the latest {@code modifiedAt} or {@code deletedAt} read from the
+ * database, and each read starts {@code replay-overlap-millis} before it to pick up transactions
+ * that committed late or on a node with a slightly skewed clock. A snapshot older than the
+ * tombstone retention is ignored, since deletes made before the retention are no longer traceable.
+ * The store starts after {@link notetakingapplication.writebehind.ToggleWriteBehind} has flushed
+ * its journal, so the replay includes toggles that were still pending at shutdown, and after
+ * {@link notetakingapplication.service.LegacyOwnerBackfill}, so it sees the owners it assigns.
+ */
+@Slf4j
+@Component
+@DependsOn({"toggleWriteBehind", "legacyOwnerBackfill"})
+public class NoteMetadataStore {
+    private static final LocalDateTime NO_HIGH_WATER = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final SnapshotProperties snapshotProperties;
+    private final NoteTakingRepository noteTakingRepository;
+    private final NoteTombstoneRepository noteTombstoneRepository;
+    private final Map<Long, NoteMetadata> notes = new ConcurrentHashMap<>();
+    private final List<NoteMetadataListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile LocalDateTime highWater = NO_HIGH_WATER;
+
+    public NoteMetadataStore(SnapshotProperties snapshotProperties, NoteTakingRepository noteTakingRepository,
+                             NoteTombstoneRepository noteTombstoneRepository) {
+        this.snapshotProperties = snapshotProperties;
+        this.noteTakingRepository = noteTakingRepository;
+        this.noteTombstoneRepository = noteTombstoneRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        NoteSnapshotFile.Snapshot snapshot = readSnapshot(Paths.get(snapshotProperties.getPath()));
+        if (snapshot == null || snapshot.getHighWater() == null || snapshot.getHighWater().isBefore(tombstoneHorizon())) {
+            List<NoteMetadata> loaded = noteTakingRepository.findAllMetadata();
+            loaded.forEach(this::put);
+            highWater = loaded.stream().map(NoteMetadata::getModifiedAt).reduce(NO_HIGH_WATER, NoteMetadataStore::later);
+            log.info("Loaded metadata of {} notes from the database in {} ms", notes.size(),
+                    Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+            return;
+        }
+        snapshot.getNotes().forEach(this::put);
+        highWater = snapshot.getHighWater();
+        int replayed = replay();
+        log.info("Loaded metadata of {} notes from a snapshot of {} and {} replayed changes in {} ms",
+                notes.size(), snapshot.getNotes().size(), replayed,
+                Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+    }
+
+    public boolean isEnabled() {
+        return snapshotProperties.isEnabled();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteEvent(NoteEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (event.getType() == NoteEventType.DELETED) {
+            remove(event.getNoteId());
+        } else {
+            put(NoteMetadata.of(event.getNote()));
+        }
+    }
+
+    public void addListener(NoteMetadataListener listener) {
+        listeners.add(listener);
+    }
+
+    public NoteMetadata get(long id) {
+        return notes.get(id);
+    }
+
+    public Collection<NoteMetadata> values() {
+        return notes.values();
+    }
+
+    public int size() {
+        return notes.size();
+    }
+
+    @Scheduled(fixedDelayString = "${notes.snapshot.refresh-interval-millis:1000}")
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            replay();
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh note metadata", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notes.snapshot.interval-millis:60000}")
+    public synchronized void writeSnapshot() {
+        if (!isEnabled()) {
+            return;
+        }
+        // Read the high-water before the notes, so the snapshot never claims changes it does not contain.
+        LocalDateTime snapshotHighWater = highWater;
+        try {
+            NoteSnapshotFile.write(Paths.get(snapshotProperties.getPath()), notes.values(), snapshotHighWater);
+        } catch (IOException | IllegalStateException ex) {
+            log.warn("Could not write note snapshot", ex);
+        }
+    }
+
+    /** Tombstones are written whether or not the store is enabled, so they are purged regardless. */
+    @Scheduled(fixedDelayString = "${notes.snapshot.tombstone-purge-interval-millis:3600000}")
+    public void purgeTombstones() {
+        int purged = noteTombstoneRepository.deleteAllDeletedBefore(tombstoneHorizon());
+        if (purged > 0) {
+            log.info("Purged {} note tombstones", purged);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        writeSnapshot();
+    }
+
+    private int replay() {
+        LocalDateTime since = highWater.minus(Duration.ofMillis(snapshotProperties.getReplayOverlapMillis()));
+        List<NoteMetadata> modified = noteTakingRepository.findMetadataModifiedSince(since);
+        List<NoteTombstone> deleted = noteTombstoneRepository.findAllByDeletedAtGreaterThanEqual(since);
+        LocalDateTime latest = highWater;
+        for (NoteMetadata note : modified) {
+            put(note);
+            latest = later(latest, note.getModifiedAt());
+        }
+        for (NoteTombstone tombstone : deleted) {
+            remove(tombstone.getNoteId());
+            latest = later(latest, tombstone.getDeletedAt());
+        }
+        highWater = latest;
+        return modified.size() + deleted.size();
+    }
+
+    private LocalDateTime tombstoneHorizon() {
+        return LocalDateTime.now().minus(Duration.ofMillis(snapshotProperties.getTombstoneRetentionMillis()));
+    }
+
+    private NoteSnapshotFile.Snapshot readSnapshot(Path path) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return NoteSnapshotFile.read(path);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring unreadable note snapshot {}", path, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Keeps the newer of two versions, so a refresh that read a row before a local write cannot undo
+     * it. Listeners are called under the map's lock for the note, so they see its changes in order.
+     */
+    private void put(NoteMetadata note) {
+        notes.compute(note.getId(), (id, current) -> {
+            if (current != null && isBefore(note.getModifiedAt(), current.getModifiedAt())) {
+                return current;
+            }
+            listeners.forEach(listener -> listener.put(note));
+            return note;
+        });
+    }
+
+    private void remove(long id) {
+        notes.compute(id, (key, current) -> {
+            if (current != null) {
+                listeners.forEach(listener -> listener.remove(key));
+            }
+            return null;
+        });
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return isBefore(a, b) ? b : a;
+    }
+
+    /** Orders timestamps with null, for rows written before modified_at existed, before any other. */
+    private static boolean isBefore(LocalDateTime a, LocalDateTime b) {
+        if (b == null) {
+            return false;
+        }
+        return a == null || a.isBefore(b);
+    }
+}
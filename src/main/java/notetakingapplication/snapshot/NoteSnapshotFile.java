@@ -0,0 +1,179 @@
+package notetakingapplication.snapshot;
+
+import lombok.Value;
+import notetakingapplication.constant.Folder;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary snapshot of {@link NoteMetadata}. The snapshot is written into a memory-mapped
+ * temporary file and moved over the previous one, so readers only ever see a complete file, and it
+ * is read back straight from the mapping without copying it onto the heap first.
+ *
+ * <p>Layout: {@code [magic][version][count][high-water modifiedAt][body length][body crc]} followed
+ * by {@code [id][createdAt][updatedAt][modifiedAt][flags][folder][owner length][owner][title length][title]}
+ * records. Timestamps are UTC epoch microseconds, with {@link Long#MIN_VALUE} for null.
+ *
+ * <p>The high-water is supplied by the caller rather than derived from the records, because only
+ * the caller knows up to which database {@code modifiedAt} the notes are complete.
+ */
+public final class NoteSnapshotFile {
+    private static final int MAGIC = 0x4E534E31;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 36;
+    private static final int FIXED_RECORD_SIZE = 42;
+    private static final byte FAVOURITE = 1;
+    private static final byte DELETED = 2;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final Folder[] FOLDERS = Folder.values();
+
+    private NoteSnapshotFile() {
+    }
+
+    public static void write(Path path, Collection<NoteMetadata> notes, LocalDateTime highWater) throws IOException {
+        List<NoteMetadata> records = new ArrayList<>(notes);
+        List<byte[]> owners = new ArrayList<>(records.size());
+        List<byte[]> titles = new ArrayList<>(records.size());
+        long size = HEADER_SIZE;
+        for (NoteMetadata note : records) {
+            byte[] owner = encode(note.getOwnerId());
+            byte[] title = encode(note.getTitle());
+            owners.add(owner);
+            titles.add(title);
+            size += FIXED_RECORD_SIZE + length(owner) + length(title);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Snapshot of " + records.size() + " notes exceeds a single mapping");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(HEADER_SIZE);
+            for (int i = 0; i < records.size(); i++) {
+                NoteMetadata note = records.get(i);
+                buffer.putLong(note.getId());
+                buffer.putLong(toMicros(note.getCreatedAt()));
+                buffer.putLong(toMicros(note.getUpdatedAt()));
+                buffer.putLong(toMicros(note.getModifiedAt()));
+                buffer.put((byte) ((note.isFavourite() ? FAVOURITE : 0) | (note.isDeleted() ? DELETED : 0)));
+                buffer.put((byte) (note.getFolder() == null ? 0 : note.getFolder().ordinal() + 1));
+                put(buffer, owners.get(i));
+                put(buffer, titles.get(i));
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_SIZE, (int) size - HEADER_SIZE));
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, records.size());
+            buffer.putLong(12, toMicros(highWater));
+            buffer.putLong(20, size - HEADER_SIZE);
+            buffer.putLong(28, crc.getValue());
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Reads a snapshot, throwing {@link IllegalStateException} if it is corrupt or from another version. */
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot has an invalid size " + channel.size());
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not a note snapshot");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("Unsupported note snapshot version " + buffer.getInt(4));
+            }
+            int count = buffer.getInt(8);
+            long bodyLength = buffer.getLong(20);
+            if (bodyLength != channel.size() - HEADER_SIZE) {
+                throw new IllegalStateException("Snapshot is truncated");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_SIZE, (int) bodyLength));
+            if (crc.getValue() != buffer.getLong(28)) {
+                throw new IllegalStateException("Snapshot checksum mismatch");
+            }
+            List<NoteMetadata> notes = new ArrayList<>(count);
+            buffer.position(HEADER_SIZE);
+            for (int i = 0; i < count; i++) {
+                long id = buffer.getLong();
+                LocalDateTime createdAt = fromMicros(buffer.getLong());
+                LocalDateTime updatedAt = fromMicros(buffer.getLong());
+                LocalDateTime modifiedAt = fromMicros(buffer.getLong());
+                byte flags = buffer.get();
+                byte folder = buffer.get();
+                String ownerId = get(buffer);
+                String title = get(buffer);
+                notes.add(new NoteMetadata(id, ownerId, title, folder == 0 ? null : FOLDERS[folder - 1],
+                        (flags & FAVOURITE) != 0, (flags & DELETED) != 0, createdAt, updatedAt, modifiedAt));
+            }
+            return new Snapshot(fromMicros(buffer.getLong(12)), notes);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void put(MappedByteBuffer buffer, byte[] value) {
+        buffer.putInt(value == null ? -1 : value.length);
+        if (value != null) {
+            buffer.put(value);
+        }
+    }
+
+    private static String get(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = StandardCharsets.UTF_8.decode(buffer.slice(buffer.position(), length)).toString();
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    @Value
+    public static class Snapshot {
+        LocalDateTime highWater;
+        List<NoteMetadata> notes;
+    }
+}
@@ -0,0 +1,36 @@
+package notetakingapplication.writebehind;
+
+import lombok.Value;
+import lombok.With;
+import notetakingapplication.model.Note;
+
+/**
+ * Target flag values for a note that have been acknowledged but not yet written to the database.
+ * Values are absolute rather than "flip" operations, so applying one twice is harmless.
+ */
+@Value
+@With
+public class PendingToggle {
+    String ownerId;
+    Boolean favourite;
+    Boolean deleted;
+
+    public static PendingToggle none(String ownerId) {
+        return new PendingToggle(ownerId, null, null);
+    }
+
+    public Note applyTo(Note note) {
+        return Note.builder()
+                .id(note.getId())
+                .ownerId(note.getOwnerId())
+                .title(note.getTitle())
+                .content(note.getContent())
+                .createdAt(note.getCreatedAt())
+                .updatedAt(note.getUpdatedAt())
+                .folder(note.getFolder())
+                .isFavourite(favourite != null ? favourite : note.isFavourite())
+                .isDeleted(deleted != null ? deleted : note.isDeleted())
+                .modifiedAt(note.getModifiedAt())
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package notetakingapplication.writebehind;
+
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Memory-mapped append log of toggle records. The file is split into two halves: appends go to the
+ * active half, and {@link #compact(Collection)} writes the surviving records into the other half
+ * before switching the header over, so a crash mid-compaction still leaves a complete journal.
+ *
+ * <p>Layout: {@code [magic][version][active half]} followed by the halves, each a sequence of
+ * {@code [committed marker][note id][field][value]} records terminated by an unset marker.
+ */
+public class ToggleJournal implements Closeable {
+    public static final byte FAVOURITE = 1;
+    public static final byte DELETED = 2;
+
+    private static final int MAGIC = 0x4E544A31;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int ACTIVE_HALF_OFFSET = 8;
+    private static final int RECORD_SIZE = 11;
+    private static final byte COMMITTED = 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int halfSize;
+    private final boolean syncOnAppend;
+    private int activeHalf;
+    private int position;
+
+    public ToggleJournal(Path path, int sizeBytes, boolean syncOnAppend) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        this.halfSize = (sizeBytes - HEADER_SIZE) / 2 / RECORD_SIZE * RECORD_SIZE;
+        this.syncOnAppend = syncOnAppend;
+        if (halfSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("Journal is too small");
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(ACTIVE_HALF_OFFSET, 0);
+            buffer.put(HEADER_SIZE, (byte) 0);
+            buffer.force();
+        } else if (buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Unsupported toggle journal version " + buffer.getInt(4));
+        }
+        this.activeHalf = buffer.getInt(ACTIVE_HALF_OFFSET);
+        this.position = halfStart(activeHalf) + readAll().size() * RECORD_SIZE;
+    }
+
+    public List<Entry> readAll() {
+        List<Entry> entries = new ArrayList<>();
+        int start = halfStart(activeHalf);
+        for (int offset = start; offset + RECORD_SIZE <= start + halfSize; offset += RECORD_SIZE) {
+            if (buffer.get(offset) != COMMITTED) {
+                break;
+            }
+            entries.add(new Entry(buffer.getLong(offset + 1), buffer.get(offset + 9), buffer.get(offset + 10) != 0));
+        }
+        return entries;
+    }
+
+    /** Appends a record, returning false when the active half is full. */
+    public boolean append(long noteId, byte field, boolean value) {
+        if (!write(activeHalf, position, noteId, field, value)) {
+            return false;
+        }
+        position += RECORD_SIZE;
+        if (syncOnAppend) {
+            buffer.force();
+        }
+        return true;
+    }
+
+    /** Replaces the journal contents with the given records, returning false if they do not fit. */
+    public boolean compact(Collection<Entry> entries) {
+        int targetHalf = 1 - activeHalf;
+        int offset = halfStart(targetHalf);
+        buffer.put(offset, (byte) 0);
+        for (Entry entry : entries) {
+            if (!write(targetHalf, offset, entry.getNoteId(), entry.getField(), entry.isValue())) {
+                return false;
+            }
+            offset += RECORD_SIZE;
+        }
+        buffer.force();
+        buffer.putInt(ACTIVE_HALF_OFFSET, targetHalf);
+        buffer.force();
+        activeHalf = targetHalf;
+        position = offset;
+        return true;
+    }
+
+    private boolean write(int half, int offset, long noteId, byte field, boolean value) {
+        int end = halfStart(half) + halfSize;
+        if (offset + RECORD_SIZE > end) {
+            return false;
+        }
+        buffer.putLong(offset + 1, noteId);
+        buffer.put(offset + 9, field);
+        buffer.put(offset + 10, (byte) (value ? 1 : 0));
+        // Clear the next marker before committing this record so stale records from an earlier
+        // generation of this half are never read back as part of the log.
+        if (offset + 2 * RECORD_SIZE <= end) {
+            buffer.put(offset + RECORD_SIZE, (byte) 0);
+        }
+        buffer.put(offset, COMMITTED);
+        return true;
+    }
+
+    private int halfStart(int half) {
+        return HEADER_SIZE + half * halfSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    @Value
+    public static class Entry {
+        long noteId;
+        byte field;
+        boolean value;
+    }
+}
@@ -0,0 +1,203 @@
+package notetakingapplication.writebehind;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import notetakingapplication.config.WriteBehindProperties;
+import notetakingapplication.model.Note;
+import notetakingapplication.repository.NoteTakingRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Optional write-behind for favourite and soft-delete toggles. A toggle is journaled and kept in
+ * memory, repeated toggles of the same note collapse into one pending value, and pending values
+ * are written to the database in batches on a short interval. A flush updates only the flag
+ * columns, so it never overwrites a concurrent edit of the rest of the note. Reads apply pending values through
+ * {@link #apply(Note)} so callers see their own toggles before they are flushed. Toggles of the same
+ * note are serialized on one of a fixed set of lock stripes, so toggles of other notes, including
+ * their database reads, run in parallel.
+ */
+@Slf4j
+@Component
+public class ToggleWriteBehind {
+    private static final int UPDATE_BATCH_SIZE = 1000;
+    private static final int LOCK_STRIPES = 64;
+
+    private final WriteBehindProperties writeBehindProperties;
+    private final NoteTakingRepository noteTakingRepository;
+    private final Map<Long, PendingToggle> pending = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Object journalLock = new Object();
+    private ToggleJournal journal;
+
+    public ToggleWriteBehind(WriteBehindProperties writeBehindProperties, NoteTakingRepository noteTakingRepository) {
+        this.writeBehindProperties = writeBehindProperties;
+        this.noteTakingRepository = noteTakingRepository;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        journal = new ToggleJournal(Paths.get(writeBehindProperties.getJournalPath()),
+                writeBehindProperties.getJournalSizeBytes(), writeBehindProperties.isSyncOnAppend());
+        Map<Long, PendingToggle> replayed = new HashMap<>();
+        for (ToggleJournal.Entry entry : journal.readAll()) {
+            PendingToggle toggle = replayed.getOrDefault(entry.getNoteId(), PendingToggle.none(null));
+            replayed.put(entry.getNoteId(), entry.getField() == ToggleJournal.FAVOURITE
+                    ? toggle.withFavourite(entry.isValue())
+                    : toggle.withDeleted(entry.isValue()));
+        }
+        if (!replayed.isEmpty()) {
+            // The journal only holds note ids; owners are read back so hasPending matches replayed toggles.
+            // Toggles of notes that have since been deleted are dropped.
+            for (Note note : noteTakingRepository.findAllById(replayed.keySet())) {
+                pending.put(note.getId(), replayed.get(note.getId()).withOwnerId(note.getOwnerId()));
+            }
+            log.info("Replaying {} journaled toggles", pending.size());
+            flush();
+        }
+    }
+
+    public boolean isEnabled() {
+        return writeBehindProperties.isEnabled();
+    }
+
+    public Note toggleFavourite(Note note) {
+        synchronized (lockFor(note.getId())) {
+            PendingToggle toggle = pending.getOrDefault(note.getId(), PendingToggle.none(note.getOwnerId()));
+            Boolean current = toggle.getFavourite();
+            boolean favourite = !(current != null ? current : read(noteTakingRepository.findFavouriteById(note.getId())));
+            toggle = toggle.withFavourite(favourite);
+            record(note.getId(), ToggleJournal.FAVOURITE, favourite, toggle);
+            return toggle.applyTo(note);
+        }
+    }
+
+    public Note toggleDeleted(Note note) {
+        synchronized (lockFor(note.getId())) {
+            PendingToggle toggle = pending.getOrDefault(note.getId(), PendingToggle.none(note.getOwnerId()));
+            Boolean current = toggle.getDeleted();
+            boolean deleted = !(current != null ? current : read(noteTakingRepository.findDeletedById(note.getId())));
+            toggle = toggle.withDeleted(deleted);
+            record(note.getId(), ToggleJournal.DELETED, deleted, toggle);
+            return toggle.applyTo(note);
+        }
+    }
+
+    public Note apply(Note note) {
+        PendingToggle toggle = pending.get(note.getId());
+        return toggle == null ? note : toggle.applyTo(note);
+    }
+
+    public boolean hasPending(String ownerId) {
+        if (pending.isEmpty()) {
+            return false;
+        }
+        return pending.values().stream().anyMatch(toggle -> ownerId.equals(toggle.getOwnerId()));
+    }
+
+    @Scheduled(fixedDelayString = "${notes.write-behind.flush-interval-millis:200}")
+    public void flush() {
+        if (!isEnabled() || pending.isEmpty()) {
+            return;
+        }
+        Map<Long, PendingToggle> batch = new HashMap<>(pending);
+        try {
+            LocalDateTime modifiedAt = LocalDateTime.now();
+            write(batch, PendingToggle::getFavourite, (ids, value) -> noteTakingRepository.updateFavourite(ids, value, modifiedAt));
+            write(batch, PendingToggle::getDeleted, (ids, value) -> noteTakingRepository.updateDeleted(ids, value, modifiedAt));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush {} pending toggles, will retry", batch.size(), ex);
+            return;
+        }
+        // Only drop values that were written; a toggle that arrived during the flush stays pending.
+        batch.forEach((noteId, toggle) -> pending.remove(noteId, toggle));
+        synchronized (journalLock) {
+            compactJournal();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Reads a flag that has no pending value straight from the database. Flushes only drop pending
+     * values once they are committed, so the flag read here already includes every earlier toggle.
+     */
+    private static boolean read(Optional<Boolean> flag) {
+        return flag.orElseThrow(() -> new RuntimeException("Note not found"));
+    }
+
+    private Object lockFor(long noteId) {
+        return locks[Long.hashCode(noteId) & (LOCK_STRIPES - 1)];
+    }
+
+    /** Writes only the given flag column, grouping notes by target value into bulk updates. */
+    private void write(Map<Long, PendingToggle> batch, Function<PendingToggle, Boolean> flag,
+                       BiConsumer<List<Long>, Boolean> update) {
+        Map<Boolean, List<Long>> ids = new HashMap<>();
+        batch.forEach((noteId, toggle) -> {
+            Boolean value = flag.apply(toggle);
+            if (value != null) {
+                ids.computeIfAbsent(value, key -> new ArrayList<>()).add(noteId);
+            }
+        });
+        ids.forEach((value, noteIds) -> {
+            for (int from = 0; from < noteIds.size(); from += UPDATE_BATCH_SIZE) {
+                update.accept(noteIds.subList(from, Math.min(from + UPDATE_BATCH_SIZE, noteIds.size())), value);
+            }
+        });
+    }
+
+    private void record(long noteId, byte field, boolean value, PendingToggle toggle) {
+        synchronized (journalLock) {
+            if (!journal.append(noteId, field, value)) {
+                compactJournal();
+                if (!journal.append(noteId, field, value)) {
+                    throw new UncheckedIOException(new IOException("Toggle journal is full"));
+                }
+            }
+            pending.put(noteId, toggle);
+        }
+    }
+
+    private void compactJournal() {
+        List<ToggleJournal.Entry> entries = new ArrayList<>();
+        pending.forEach((noteId, toggle) -> {
+            if (toggle.getFavourite() != null) {
+                entries.add(new ToggleJournal.Entry(noteId, ToggleJournal.FAVOURITE, toggle.getFavourite()));
+            }
+            if (toggle.getDeleted() != null) {
+                entries.add(new ToggleJournal.Entry(noteId, ToggleJournal.DELETED, toggle.getDeleted()));
+            }
+        });
+        if (!journal.compact(entries)) {
+            throw new UncheckedIOException(new IOException("Toggle journal is full"));
+        }
+    }
+}
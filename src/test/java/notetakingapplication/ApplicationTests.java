@@ -1,10 +1,18 @@
 package notetakingapplication;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 class ApplicationTests {
+    private static final Duration MAX_STARTUP_TIME = Duration.ofSeconds(30);
 
     @Test
     void contextLoads() {}
@@ -13,4 +21,22 @@ class ApplicationTests {
     public void main() {
         Application.main(new String[] {});
     }
+
+    @Test
+    void startupTime() {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run("--server.port=0")) {
+            Duration startupTime = Duration.ofNanos(System.nanoTime() - start);
+            assertTrue(context.isActive());
+            assertTrue(startupTime.compareTo(MAX_STARTUP_TIME) < 0, "Startup took " + startupTime);
+        }
+    }
+
+    @Test
+    void exitOnReady() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run("--server.port=0", "--notes.startup.exit-on-ready=true");
+        assertFalse(context.isActive());
+    }
 }
@@ -0,0 +1,168 @@
+package notetakingapplication;
+
+import notetakingapplication.constant.Folder;
+import notetakingapplication.contract.request.NoteTakingRequest;
+import notetakingapplication.controller.NoteTakingController;
+import notetakingapplication.service.NoteTakingService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load-tests the default settings against {@code application-performance.yml} on a real PostgreSQL:
+ * concurrent HTTP clients run a mix of lookups, listings and inserts over seeded notes, and each
+ * profile reports throughput, latency percentiles and failed requests. Requires Docker; run with
+ * {@code mvn test -Dtest=PerformanceProfileBenchmarkTest -Dbenchmark=true}, optionally with
+ * {@code -Dbenchmark.clients=64} and {@code -Dbenchmark.seconds=60}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PerformanceProfileBenchmarkTest {
+    private static final int OWNERS = 200;
+    private static final int NOTES_PER_OWNER = 50;
+    private static final int WARMUP_SECONDS = 10;
+    private static PostgreSQLContainer<?> postgres;
+
+    @BeforeAll
+    public static void startDatabase() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+    }
+
+    @AfterAll
+    public static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 32);
+        int seconds = Integer.getInteger("benchmark.seconds", 30);
+        for (String profile : new String[]{"default", "performance"}) {
+            run(profile, clients, seconds);
+        }
+    }
+
+    private void run(String profile, int clients, int seconds) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        // Measure the database path, not the per-client limits.
+                        "--notes.requests.requests-per-second=1000000",
+                        "--notes.requests.burst=1000000",
+                        "--notes.limits.writes-per-second=1000000",
+                        "--notes.limits.write-burst=1000000")) {
+            long[][] noteIds = seed(context.getBean(NoteTakingService.class));
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            load(port, noteIds, clients, WARMUP_SECONDS);
+            Result result = load(port, noteIds, clients, seconds);
+            System.out.printf("profile=%s clients=%d requests=%,d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms failed=%d%n",
+                    profile, clients, result.latencies.length, result.latencies.length / (double) seconds,
+                    percentile(result.latencies, 0.50), percentile(result.latencies, 0.99), result.failed);
+        }
+    }
+
+    private static long[][] seed(NoteTakingService noteTakingService) {
+        long[][] noteIds = new long[OWNERS][NOTES_PER_OWNER];
+        for (int owner = 0; owner < OWNERS; owner++) {
+            for (int i = 0; i < NOTES_PER_OWNER; i++) {
+                NoteTakingRequest request = new NoteTakingRequest();
+                request.setTitle("Note " + i);
+                request.setContent("Content of note " + i);
+                request.setFolder(Folder.values()[i % Folder.values().length]);
+                noteIds[owner][i] = noteTakingService.addNotes("owner-" + owner, request).getId();
+            }
+        }
+        return noteIds;
+    }
+
+    // Each client mixes 70% lookups, 20% listings and 10% inserts on a random owner's notes.
+    private static Result load(int port, long[][] noteIds, int clients, int seconds) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        AtomicInteger failed = new AtomicInteger();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Random random = new Random(c);
+            futures.add(executor.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    int owner = random.nextInt(OWNERS);
+                    HttpRequest request = request(port, owner, noteIds[owner], random.nextInt(10), random);
+                    long start = System.nanoTime();
+                    int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    latencies.add(System.nanoTime() - start);
+                    if (status >= 400) {
+                        failed.incrementAndGet();
+                    }
+                }
+                return latencies;
+            }));
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            all.addAll(future.get());
+        }
+        executor.shutdown();
+        long[] latencies = all.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(latencies, failed.get());
+    }
+
+    private static HttpRequest request(int port, int owner, long[] ownerNoteIds, int kind, Random random) {
+        String base = "http://localhost:" + port + "/notes";
+        HttpRequest.Builder builder = HttpRequest.newBuilder().header(NoteTakingController.OWNER_HEADER, "owner-" + owner);
+        if (kind < 7) {
+            return builder.uri(URI.create(base + "/" + ownerNoteIds[random.nextInt(ownerNoteIds.length)])).build();
+        }
+        if (kind < 9) {
+            return builder.uri(URI.create(base + "/undeleted")).build();
+        }
+        return builder.uri(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load\",\"content\":\"Load test\",\"folder\":\"Work\"}"))
+                .build();
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1);
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static class Result {
+        private final long[] latencies;
+        private final int failed;
+
+        private Result(long[] latencies, int failed) {
+            this.latencies = latencies;
+            this.failed = failed;
+        }
+    }
+}
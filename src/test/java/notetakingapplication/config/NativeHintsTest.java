@@ -0,0 +1,24 @@
+package notetakingapplication.config;
+
+import notetakingapplication.constant.Folder;
+import notetakingapplication.contract.request.NoteTakingRequest;
+import notetakingapplication.model.Note;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NativeHintsTest {
+
+    @Test
+    public void testRegisterHints() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onField(Note.class.getDeclaredField("title")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(NoteTakingRequest.class.getDeclaredField("folder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(Note.class.getDeclaredConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Folder.class).test(hints));
+    }
+}
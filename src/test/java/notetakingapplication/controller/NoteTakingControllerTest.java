@@ -2,6 +2,8 @@ package notetakingapplication.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import notetakingapplication.constant.Folder;
+import notetakingapplication.constant.NoteEventType;
+import notetakingapplication.event.NoteEvent;
 import notetakingapplication.model.Note;
 import notetakingapplication.service.NoteTakingService;
 import org.junit.jupiter.api.Test;
@@ -9,16 +11,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -28,23 +35,36 @@ public class NoteTakingControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     @MockBean
     private NoteTakingService noteTakingService;
+    private static final String OWNER_ID = "user-1";
 
     @Test
     public void addNotesTest() throws Exception {
         String json = "{\"title\":\"Test Note\",\"content\":\"This is a test note.\"}";
 
         mockMvc.perform(MockMvcRequestBuilders.post("/notes")
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void getAllNotesWithoutOwnerTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/notes")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void getAllNotesTest() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/notes")
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -54,6 +74,7 @@ public class NoteTakingControllerTest {
         Long noteId = 1L;
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/notes/" + noteId)
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -63,6 +84,7 @@ public class NoteTakingControllerTest {
         String json = "{\"title\":\"Updated Note\",\"content\":\"This is an updated note.\"}";
 
         mockMvc.perform(MockMvcRequestBuilders.put("/notes/1")
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(status().isOk());
@@ -72,7 +94,8 @@ public class NoteTakingControllerTest {
     public void deleteNoteByIdTest() throws Exception {
         long idToDelete = 1;
 
-        mockMvc.perform(MockMvcRequestBuilders.delete("/notes/" + idToDelete))
+        mockMvc.perform(MockMvcRequestBuilders.delete("/notes/" + idToDelete)
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID))
                 .andExpect(status().isOk())
                 .andExpect(content().string(Long.toString(idToDelete)));
     }
@@ -80,7 +103,8 @@ public class NoteTakingControllerTest {
     @Test
     public void testToggleFavorite() throws Exception {
         Long noteId = 1L;
-        mockMvc.perform(MockMvcRequestBuilders.put("/notes/toggleFavorite/" + noteId))
+        mockMvc.perform(MockMvcRequestBuilders.put("/notes/toggleFavorite/" + noteId)
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID))
                 .andExpect(status().isOk());
     }
 
@@ -102,8 +126,9 @@ public class NoteTakingControllerTest {
                 .updatedAt(LocalDateTime.now().minusDays(1))
                 .build();
         List<Note> allNotes = Arrays.asList(note1, note2);
-        when(noteTakingService.getAllFavoriteNotes(title)).thenReturn(allNotes);
-        mockMvc.perform(MockMvcRequestBuilders.get("/notes/favorites").param("title", title))
+        when(noteTakingService.getAllFavoriteNotes(OWNER_ID, title)).thenReturn(allNotes);
+        mockMvc.perform(MockMvcRequestBuilders.get("/notes/favorites")
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID).param("title", title))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"));
     }
@@ -112,7 +137,8 @@ public class NoteTakingControllerTest {
     public void toggleSoftDeleteTest() throws Exception {
         Long noteId = 1L;
 
-        mockMvc.perform(MockMvcRequestBuilders.delete("/notes/toggleSoftDelete/" + noteId))
+        mockMvc.perform(MockMvcRequestBuilders.delete("/notes/toggleSoftDelete/" + noteId)
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID))
                 .andExpect(status().isOk())
                 .andExpect(content().string(Long.toString(noteId)));
     }
@@ -132,8 +158,9 @@ public class NoteTakingControllerTest {
                 .updatedAt(LocalDateTime.now().minusDays(1))
                 .build();
         List<Note> allNotes = Arrays.asList(note1, note2);
-        when(noteTakingService.getAllDeletedNotesSortedByUpdatedDate(title)).thenReturn(allNotes);
-        mockMvc.perform(MockMvcRequestBuilders.get("/notes/deleted").param("title", title))
+        when(noteTakingService.getAllDeletedNotesSortedByUpdatedDate(OWNER_ID, title)).thenReturn(allNotes);
+        mockMvc.perform(MockMvcRequestBuilders.get("/notes/deleted")
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID).param("title", title))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
     }
@@ -148,9 +175,10 @@ public class NoteTakingControllerTest {
 
         List<Note> expectedNotes = Arrays.asList(note1, note2);
 
-        when(noteTakingService.getAllUndeletedNotesSortedByUpdatedDate()).thenReturn(expectedNotes);
+        when(noteTakingService.getAllUndeletedNotesSortedByUpdatedDate(OWNER_ID)).thenReturn(expectedNotes);
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/notes/undeleted"))
+        mockMvc.perform(MockMvcRequestBuilders.get("/notes/undeleted")
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
 
@@ -173,8 +201,9 @@ public class NoteTakingControllerTest {
                 .isDeleted(true)
                 .build();
         List<Note> allNotes = Arrays.asList(note1, note2);
-        when(noteTakingService.getAllNotesByFolder(Folder.valueOf(folder), title)).thenReturn(allNotes);
-        mockMvc.perform(MockMvcRequestBuilders.get("/notes/byFolder/" + folder).param("title", title))
+        when(noteTakingService.getAllNotesByFolder(OWNER_ID, Folder.valueOf(folder), title)).thenReturn(allNotes);
+        mockMvc.perform(MockMvcRequestBuilders.get("/notes/byFolder/" + folder)
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID).param("title", title))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
     }
@@ -187,13 +216,76 @@ public class NoteTakingControllerTest {
 
         List<Note> expectedNotes = Arrays.asList(note1, note2);
 
-        when(noteTakingService.searchNotesByTitle(title)).thenReturn(expectedNotes);
+        when(noteTakingService.searchNotesByTitle(OWNER_ID, title)).thenReturn(expectedNotes);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/notes/search")
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID)
                         .param("title", title))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    public void getAllUndeletedNotesInBinaryFormatsTest() throws Exception {
+        List<Note> notes = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            notes.add(Note.builder()
+                    .id(id)
+                    .ownerId(OWNER_ID)
+                    .title("Title " + id)
+                    .content("Content of note " + id)
+                    .folder(Folder.Work)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        when(noteTakingService.getAllUndeletedNotesSortedByUpdatedDate(OWNER_ID)).thenReturn(notes);
+
+        int jsonBytes = responseSize(MediaType.APPLICATION_JSON);
+        int smileBytes = responseSize(new MediaType("application", "x-jackson-smile"));
+        int cborBytes = responseSize(new MediaType("application", "cbor"));
+
+        assertTrue(smileBytes < jsonBytes);
+        assertTrue(cborBytes < jsonBytes);
+    }
 
+    private int responseSize(MediaType mediaType) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/notes/undeleted")
+                        .header(NoteTakingController.OWNER_HEADER, OWNER_ID)
+                        .accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray()
+                .length;
+    }
+
+    @Test
+    public void subscribeToEventsTest() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/notes/events")
+                        .param(NoteTakingController.OWNER_PARAM, OWNER_ID)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        eventPublisher.publishEvent(new NoteEvent(NoteEventType.DELETED, OWNER_ID, 7L, null));
+        eventPublisher.publishEvent(new NoteEvent(NoteEventType.DELETED, "user-2", 8L, null));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.getResponse().getContentAsString().contains("event:DELETED") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("id:1\nevent:DELETED"));
+        assertTrue(body.contains("\"noteId\":7"));
+        assertTrue(!body.contains("\"noteId\":8"));
+    }
+
+    @Test
+    public void subscribeToEventsWithoutOwnerTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/notes/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+    }
 }
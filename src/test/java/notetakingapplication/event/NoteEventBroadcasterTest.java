@@ -0,0 +1,205 @@
+package notetakingapplication.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import notetakingapplication.config.EventStreamProperties;
+import notetakingapplication.constant.NoteEventType;
+import notetakingapplication.controller.NoteTakingController;
+import notetakingapplication.service.NoteTakingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class NoteEventBroadcasterTest {
+    private static final String OWNER_ID = "user-1";
+    private static final String STALLED_PARAM = "stalled";
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EventStreamProperties eventStreamProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private NoteEventBroadcaster broadcaster;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void init() {
+        eventStreamProperties = new EventStreamProperties();
+        eventStreamProperties.setBufferSize(4);
+        eventStreamProperties.setSenderThreads(2);
+        eventStreamProperties.setWriteTimeoutMillis(5000);
+    }
+
+    private void start() {
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new NoteEventBroadcaster(eventStreamProperties, meterRegistry);
+        // Responses of stalled clients block every write until released, like a client that stopped reading.
+        Filter stalling = (request, response, chain) -> chain.doFilter(request,
+                request.getParameter(STALLED_PARAM) != null ? new StalledResponse((HttpServletResponse) response, release) : response);
+        mockMvc = MockMvcBuilders.standaloneSetup(new NoteTakingController(Mockito.mock(NoteTakingService.class), broadcaster))
+                .addFilter(stalling)
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        if (broadcaster != null) {
+            broadcaster.stop();
+        }
+    }
+
+    @Test
+    public void testPublish_DeliversOnlyToOwnerWithStreamSequenceIds() throws Exception {
+        start();
+        MockHttpServletResponse owner = subscribe(OWNER_ID, false);
+        MockHttpServletResponse other = subscribe("user-2", false);
+
+        broadcaster.publish(new NoteEvent(NoteEventType.ADDED, OWNER_ID, 41L, null));
+        broadcaster.publish(new NoteEvent(NoteEventType.DELETED, OWNER_ID, 41L, null));
+
+        awaitEvents(owner, 2);
+        String body = owner.getContentAsString();
+        assertTrue(body.contains("id:1\nevent:ADDED"));
+        assertTrue(body.contains("id:2\nevent:DELETED"));
+        assertFalse(body.contains("id:41"));
+        assertEquals("", other.getContentAsString());
+    }
+
+    @Test
+    public void testPublish_OverflowingStalledSubscriberEvictedWithoutBlockingPublisherOrOthers() throws Exception {
+        start();
+        subscribe(OWNER_ID, true);
+        MockHttpServletResponse fast = subscribe(OWNER_ID, false);
+
+        long slowestPublishNanos = 0;
+        for (int i = 1; i <= 10; i++) {
+            long startedAt = System.nanoTime();
+            broadcaster.publish(new NoteEvent(NoteEventType.UPDATED, OWNER_ID, i, null));
+            broadcaster.heartbeat();
+            slowestPublishNanos = Math.max(slowestPublishNanos, System.nanoTime() - startedAt);
+            awaitEvents(fast, i);
+        }
+
+        long slowestPublishMillis = TimeUnit.NANOSECONDS.toMillis(slowestPublishNanos);
+        assertTrue(slowestPublishMillis < 1000, "publishing took " + slowestPublishMillis + " ms");
+        assertEquals(1.0, meterRegistry.counter("notes.events.evicted").count());
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    public void testHeartbeat_EvictsSubscriberStalledInWriteWithoutWaitingForIt() throws Exception {
+        eventStreamProperties.setWriteTimeoutMillis(200);
+        start();
+        subscribe(OWNER_ID, true);
+        MockHttpServletResponse fast = subscribe(OWNER_ID, false);
+
+        broadcaster.publish(new NoteEvent(NoteEventType.UPDATED, OWNER_ID, 1L, null));
+        awaitEvents(fast, 1);
+        Thread.sleep(300);
+        long startedAt = System.nanoTime();
+        broadcaster.heartbeat();
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < 1000);
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.counter("notes.events.evicted").count());
+        broadcaster.publish(new NoteEvent(NoteEventType.UPDATED, OWNER_ID, 2L, null));
+        awaitEvents(fast, 2);
+    }
+
+    @Test
+    public void testPublish_StalledSubscribersHoldAtMostTheSenderPool() throws Exception {
+        long sendersBefore = senderThreads();
+        start();
+        for (int i = 0; i < 10; i++) {
+            subscribe(OWNER_ID, true);
+        }
+
+        for (int i = 1; i <= 10; i++) {
+            broadcaster.publish(new NoteEvent(NoteEventType.UPDATED, OWNER_ID, i, null));
+        }
+
+        Thread.sleep(200);
+        long senders = senderThreads() - sendersBefore;
+        assertTrue(senders <= eventStreamProperties.getSenderThreads(), senders + " sender threads");
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(10.0, meterRegistry.counter("notes.events.evicted").count());
+    }
+
+    private MockHttpServletResponse subscribe(String ownerId, boolean stalled) throws Exception {
+        MockHttpServletRequestBuilder builder = MockMvcRequestBuilders.get("/notes/events")
+                .param(NoteTakingController.OWNER_PARAM, ownerId)
+                .accept(MediaType.TEXT_EVENT_STREAM);
+        if (stalled) {
+            builder.param(STALLED_PARAM, "true");
+        }
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static long senderThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("note-events-"))
+                .count();
+    }
+
+    private static void awaitEvents(MockHttpServletResponse response, int count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (response.getContentAsString().split("event:", -1).length - 1 < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, response.getContentAsString().split("event:", -1).length - 1);
+    }
+
+    private static class StalledResponse extends HttpServletResponseWrapper {
+        private final ServletOutputStream outputStream;
+
+        private StalledResponse(HttpServletResponse response, CountDownLatch release) {
+            super(response);
+            this.outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(ex);
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return false;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package notetakingapplication.index;
+
+import notetakingapplication.config.IndexProperties;
+import notetakingapplication.constant.Folder;
+import notetakingapplication.model.Note;
+import notetakingapplication.snapshot.NoteMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Compares the stream pipelines of NoteTakingService with {@link ColumnarNoteIndex#search} for a
+ * typical owner with about a hundred notes and a heavy owner with 1% of all notes, among as many
+ * owners as it takes to hold the rest. Run with
+ * {@code mvn test -Dtest=ColumnarNoteIndexBenchmarkTest -Dbenchmark=true}, optionally with
+ * {@code -Dbenchmark.sizes=1000000} and a larger {@code -DargLine=-Xmx6g}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ColumnarNoteIndexBenchmarkTest {
+    private static final String TYPICAL_OWNER_ID = "user-0";
+    private static final String HEAVY_OWNER_ID = "heavy-user";
+    private static final int NOTES_PER_OWNER = 100;
+    private static final String[] WORDS = {"Groceries", "Meeting", "Ideas", "TODO", "Recipe", "Travel", "Budget", "Reading"};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    @Test
+    public void benchmark() {
+        for (String size : System.getProperty("benchmark.sizes", "1000000,10000000").split(",")) {
+            run(Integer.parseInt(size.trim()));
+        }
+    }
+
+    private void run(int count) {
+        IndexProperties indexProperties = new IndexProperties();
+        indexProperties.setEnabled(true);
+        ColumnarNoteIndex index = new ColumnarNoteIndex(indexProperties, null);
+        Random random = new Random(42);
+        int heavyCount = count / 100;
+        List<Note> heavyNotes = new ArrayList<>(heavyCount);
+        List<Note> typicalNotes = new ArrayList<>(NOTES_PER_OWNER);
+        for (int i = 0; i < count; i++) {
+            String ownerId = i < heavyCount ? HEAVY_OWNER_ID : "user-" + (i - heavyCount) / NOTES_PER_OWNER;
+            Note note = note(i + 1, ownerId, random);
+            index.put(NoteMetadata.of(note));
+            if (ownerId.equals(HEAVY_OWNER_ID)) {
+                heavyNotes.add(note);
+            } else if (ownerId.equals(TYPICAL_OWNER_ID)) {
+                typicalNotes.add(note);
+            }
+        }
+        String title = "ideas";
+        for (List<Note> ownerNotes : List.of(typicalNotes, heavyNotes)) {
+            // The repository returns an owner's undeleted notes ordered by updatedAt.
+            List<Note> undeletedNotes = ownerNotes.stream()
+                    .filter(note -> !note.isDeleted())
+                    .sorted(Comparator.comparing(Note::getUpdatedAt).thenComparing(Note::getId).reversed())
+                    .collect(Collectors.toList());
+            String ownerId = ownerNotes.get(0).getOwnerId();
+            NoteQuery query = NoteQuery.builder().ownerId(ownerId).deleted(false).favourite(true).title(title).build();
+
+            assertArrayEquals(streamIds(undeletedNotes, title), index.search(query, Integer.MAX_VALUE));
+            double streamMillis = measure(() -> streamIds(undeletedNotes, title));
+            double indexMillis = measure(() -> index.search(query, Integer.MAX_VALUE));
+            System.out.printf("notes=%,d owner=%s ownerNotes=%,d parallelism=%d stream=%.3f ms columnar=%.3f ms speedup=%.1fx%n",
+                    count, ownerId, ownerNotes.size(), indexProperties.getParallelism(), streamMillis, indexMillis,
+                    streamMillis / indexMillis);
+        }
+        index.stop();
+    }
+
+    // Mirrors loadFavoriteNotes over the undeleted notes, already ordered by updatedAt as the repository returns them.
+    private static long[] streamIds(List<Note> undeletedNotes, String title) {
+        return undeletedNotes.stream()
+                .filter(Note::isFavourite)
+                .filter(note -> note.getTitle().toLowerCase().contains(title.toLowerCase()))
+                .mapToLong(Note::getId)
+                .toArray();
+    }
+
+    private static double measure(Supplier<long[]> search) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            search.get();
+        }
+        double[] millis = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[MEASURED_RUNS / 2];
+    }
+
+    private static Note note(long id, String ownerId, Random random) {
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        Folder[] folders = Folder.values();
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+        return new Note(id, ownerId, title, null, base, base.plusSeconds(random.nextInt(100_000)),
+                random.nextInt(4) == 0, random.nextInt(5) == 0, folders[random.nextInt(folders.length)], null);
+    }
+}
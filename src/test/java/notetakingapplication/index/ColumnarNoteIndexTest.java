@@ -0,0 +1,134 @@
+package notetakingapplication.index;
+
+import notetakingapplication.config.IndexProperties;
+import notetakingapplication.config.SnapshotProperties;
+import notetakingapplication.constant.Folder;
+import notetakingapplication.constant.NoteEventType;
+import notetakingapplication.event.NoteEvent;
+import notetakingapplication.model.Note;
+import notetakingapplication.repository.NoteTakingRepository;
+import notetakingapplication.repository.NoteTombstoneRepository;
+import notetakingapplication.snapshot.NoteMetadata;
+import notetakingapplication.snapshot.NoteMetadataStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+public class ColumnarNoteIndexTest {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final String[] WORDS = {"Groceries", "Meeting", "Ideas", "TODO", "Recipe", "Travel"};
+    @TempDir
+    Path tempDir;
+    private IndexProperties indexProperties;
+    private ColumnarNoteIndex index;
+
+    @BeforeEach
+    public void init() {
+        indexProperties = new IndexProperties();
+        indexProperties.setEnabled(true);
+        indexProperties.setParallelism(4);
+        indexProperties.setSplitThreshold(64);
+        index = new ColumnarNoteIndex(indexProperties, null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        index.stop();
+    }
+
+    @Test
+    public void testSearch_MatchesStreamFiltering() {
+        List<NoteMetadata> notes = randomNotes(5000, new Random(7));
+        index.putAll(notes);
+
+        for (Folder folder : Folder.values()) {
+            NoteQuery query = NoteQuery.builder().ownerId("user-1").deleted(false).folder(folder).title("ee").build();
+            assertArrayEquals(expected(notes, query, Integer.MAX_VALUE), index.search(query, Integer.MAX_VALUE));
+        }
+        NoteQuery favourites = NoteQuery.builder().ownerId("user-2").deleted(false).favourite(true).title("I").build();
+        assertArrayEquals(expected(notes, favourites, Integer.MAX_VALUE), index.search(favourites, Integer.MAX_VALUE));
+        NoteQuery all = NoteQuery.builder().ownerId("user-1").build();
+        assertArrayEquals(expected(notes, all, 25), index.search(all, 25));
+    }
+
+    @Test
+    public void testStart_FollowsMetadataStore() {
+        SnapshotProperties snapshotProperties = new SnapshotProperties();
+        snapshotProperties.setEnabled(true);
+        snapshotProperties.setPath(tempDir.resolve("snapshot.bin").toString());
+        NoteTakingRepository noteTakingRepository = Mockito.mock(NoteTakingRepository.class);
+        when(noteTakingRepository.findAllMetadata()).thenReturn(List.of(new NoteMetadata(1L, "user-1", "Title", Folder.Work,
+                false, false, BASE_TIME, BASE_TIME, BASE_TIME)));
+        NoteMetadataStore store = new NoteMetadataStore(snapshotProperties, noteTakingRepository, Mockito.mock(NoteTombstoneRepository.class));
+        store.start();
+        index.stop();
+        index = new ColumnarNoteIndex(indexProperties, store);
+        index.start();
+        Note newer = new Note(2L, "user-1", "Other title", "Content", BASE_TIME, BASE_TIME.plusHours(1), false, false, Folder.Work, null);
+        NoteQuery query = NoteQuery.builder().ownerId("user-1").deleted(false).title("title").build();
+
+        store.onNoteEvent(new NoteEvent(NoteEventType.ADDED, "user-1", 2L, newer));
+        assertArrayEquals(new long[]{2L, 1L}, index.search(query, 10));
+
+        store.onNoteEvent(new NoteEvent(NoteEventType.SOFT_DELETE_TOGGLED, "user-1", 2L,
+                new Note(2L, "user-1", "Other title", "Content", BASE_TIME, BASE_TIME.plusHours(1), false, true, Folder.Work, null)));
+        store.onNoteEvent(new NoteEvent(NoteEventType.DELETED, "user-1", 1L, null));
+        assertEquals(0, index.search(query, 10).length);
+        assertArrayEquals(new long[]{2L}, index.search(NoteQuery.builder().ownerId("user-1").deleted(true).build(), 10));
+        assertEquals(0, index.search(NoteQuery.builder().ownerId("user-3").build(), 10).length);
+    }
+
+    @Test
+    public void testPut_MovesNoteToNewOwner() {
+        index.put(new NoteMetadata(1L, "user-1", "Title", Folder.Work, false, false, BASE_TIME, BASE_TIME, BASE_TIME));
+        index.put(new NoteMetadata(1L, "user-2", "Title", Folder.Work, false, false, BASE_TIME, BASE_TIME, BASE_TIME));
+
+        assertEquals(0, index.search(NoteQuery.builder().ownerId("user-1").build(), 10).length);
+        assertArrayEquals(new long[]{1L}, index.search(NoteQuery.builder().ownerId("user-2").build(), 10));
+    }
+
+    @Test
+    public void testStart_RequiresMetadataStore() {
+        assertThrows(IllegalStateException.class, () -> index.start());
+    }
+
+    static List<NoteMetadata> randomNotes(int count, Random random) {
+        List<NoteMetadata> notes = new ArrayList<>(count);
+        Folder[] folders = Folder.values();
+        for (int i = 0; i < count; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            notes.add(new NoteMetadata(i + 1, "user-" + (1 + random.nextInt(2)), title, folders[random.nextInt(folders.length)],
+                    random.nextInt(4) == 0, random.nextInt(5) == 0, BASE_TIME, BASE_TIME.plusSeconds(random.nextInt(count)), BASE_TIME));
+        }
+        return notes;
+    }
+
+    private static long[] expected(List<NoteMetadata> notes, NoteQuery query, int limit) {
+        List<Long> ids = notes.stream()
+                .filter(note -> note.getOwnerId().equals(query.getOwnerId()))
+                .filter(note -> query.getDeleted() == null || note.isDeleted() == query.getDeleted())
+                .filter(note -> query.getFavourite() == null || note.isFavourite() == query.getFavourite())
+                .filter(note -> query.getFolder() == null || note.getFolder() == query.getFolder())
+                .filter(note -> query.getTitle() == null || note.getTitle().toLowerCase().contains(query.getTitle().toLowerCase()))
+                .sorted(Comparator.comparing(NoteMetadata::getUpdatedAt).thenComparing(NoteMetadata::getId).reversed())
+                .limit(limit)
+                .map(NoteMetadata::getId)
+                .collect(Collectors.toList());
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
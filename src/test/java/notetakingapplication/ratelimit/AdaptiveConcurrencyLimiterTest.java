@@ -0,0 +1,92 @@
+package notetakingapplication.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testTryAcquire_RejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testRelease_GrowsLimitWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        window(limiter, TimeUnit.MILLISECONDS.toNanos(5), 5);
+
+        assertTrue(limiter.getLimit() > 2);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testRelease_ShrinksLimitWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 2.0);
+
+        window(limiter, TimeUnit.MILLISECONDS.toNanos(5), 1);
+        int limitBeforeSlowdown = limiter.getLimit();
+        window(limiter, TimeUnit.MILLISECONDS.toNanos(50), 3);
+
+        assertTrue(limiter.getLimit() < limitBeforeSlowdown);
+    }
+
+    @Test
+    public void testRelease_SingleSlowRequestDoesNotShrinkLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 2.0);
+
+        window(limiter, TimeUnit.MILLISECONDS.toNanos(5), 1);
+        int limit = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(limit, limiter.getLimit());
+    }
+
+    @Test
+    public void testRelease_MixedLatencyWorkloadKeepsLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 2.0);
+
+        // Cached lookups alternating with listings ten times slower, one request at a time.
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire();
+            limiter.release(i % 2 == 0 ? TimeUnit.MICROSECONDS.toNanos(300) : TimeUnit.MILLISECONDS.toNanos(3));
+        }
+
+        assertTrue(limiter.getLimit() >= 20, "limit dropped to " + limiter.getLimit());
+        int admitted = 0;
+        for (int i = 0; i < 20; i++) {
+            admitted += limiter.tryAcquire() ? 1 : 0;
+        }
+        assertEquals(20, admitted);
+    }
+
+    @Test
+    public void testRelease_NeverDropsBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 4, 10, 2.0);
+
+        window(limiter, 1, 1);
+        for (int i = 0; i < 10; i++) {
+            window(limiter, TimeUnit.SECONDS.toNanos(1), 1);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    private static void window(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int windows) {
+        for (int i = 0; i < AdaptiveConcurrencyLimiter.WINDOW_SAMPLES * windows; i++) {
+            limiter.tryAcquire();
+            limiter.release(latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package notetakingapplication.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import notetakingapplication.config.RequestLimitsProperties;
+import notetakingapplication.controller.NoteTakingController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RateLimitFilterTest {
+    private MeterRegistry meterRegistry;
+    private RequestLimitsProperties requestLimitsProperties;
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestLimitsProperties = new RequestLimitsProperties();
+        requestLimitsProperties.setBurst(1);
+        requestLimitsProperties.setRequestsPerSecond(0.001);
+    }
+
+    @Test
+    public void testDoFilter_RejectsClientOverRate() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(requestLimitsProperties, meterRegistry);
+
+        MockHttpServletResponse first = perform(filter, "10.0.0.1", "user-1");
+        MockHttpServletResponse second = perform(filter, "10.0.0.1", "user-1");
+        MockHttpServletResponse otherClient = perform(filter, "10.0.0.2", "user-1");
+
+        assertEquals(HttpStatus.OK.value(), first.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), second.getStatus());
+        assertNotNull(second.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK.value(), otherClient.getStatus());
+        assertEquals(1.0, meterRegistry.get("notes.requests.rejected").tag("reason", "rate_limit").counter().count());
+    }
+
+    @Test
+    public void testDoFilter_ShedsLoadAboveConcurrencyLimit() throws Exception {
+        requestLimitsProperties.setBurst(10);
+        requestLimitsProperties.setInitialConcurrency(1);
+        requestLimitsProperties.setMinConcurrency(1);
+        requestLimitsProperties.setMaxConcurrency(1);
+        RateLimitFilter filter = new RateLimitFilter(requestLimitsProperties, meterRegistry);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    nested[0] = perform(filter, "10.0.0.2", "user-2");
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        };
+
+        filter.doFilter(request("10.0.0.1", "user-1"), new MockHttpServletResponse(), chain);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("notes.requests.rejected").tag("reason", "concurrency_limit").counter().count());
+    }
+
+    @Test
+    public void testDoFilter_RotatingOwnerHeaderSharesAddressBucket() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(requestLimitsProperties, meterRegistry);
+
+        MockHttpServletResponse first = perform(filter, "10.0.0.1", "user-1");
+        MockHttpServletResponse rotated = perform(filter, "10.0.0.1", "user-2");
+
+        assertEquals(HttpStatus.OK.value(), first.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rotated.getStatus());
+    }
+
+    @Test
+    public void testEvictIdleBuckets_DropsRefilledBucketsOverLimit() throws Exception {
+        requestLimitsProperties.setRequestsPerSecond(1000);
+        requestLimitsProperties.setMaxTrackedClients(1);
+        RateLimitFilter filter = new RateLimitFilter(requestLimitsProperties, meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            perform(filter, "10.0.0." + i, "user-1");
+        }
+        Thread.sleep(10);
+
+        filter.evictIdleBuckets();
+
+        assertEquals(0, filter.getTrackedClients());
+    }
+
+    @Test
+    public void testDoFilter_IgnoresOtherPaths() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(requestLimitsProperties, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+        }
+    }
+
+    private MockHttpServletResponse perform(RateLimitFilter filter, String remoteAddr, String ownerId) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(remoteAddr, ownerId), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest request(String remoteAddr, String ownerId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/notes");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader(NoteTakingController.OWNER_HEADER, ownerId);
+        return request;
+    }
+}
@@ -0,0 +1,37 @@
+package notetakingapplication.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"notes.requests.burst=1", "notes.requests.requests-per-second=0.001"})
+public class RateLimitForwardedHeadersTest {
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void testClientsBehindTrustedProxyGetTheirOwnBuckets() throws Exception {
+        assertNotEquals(HttpStatus.TOO_MANY_REQUESTS.value(), get("203.0.113.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), get("203.0.113.1"));
+        assertNotEquals(HttpStatus.TOO_MANY_REQUESTS.value(), get("203.0.113.2"));
+    }
+
+    private int get(String clientAddress) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/notes"))
+                .header("X-Forwarded-For", clientAddress)
+                .header("X-User-Id", "user-1")
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,114 @@
+package notetakingapplication.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import notetakingapplication.constant.Folder;
+import notetakingapplication.contract.request.NoteTakingRequest;
+import notetakingapplication.model.Note;
+import notetakingapplication.service.NoteTakingService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class NoteTakingRepositoryCacheTest {
+    @Autowired
+    private NoteTakingRepository noteTakingRepository;
+    @Autowired
+    private NoteTakingService noteTakingService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private String ownerId;
+
+    @BeforeEach
+    public void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void testNoteServedFromSecondLevelCache() {
+        Note note = noteTakingService.addNotes(ownerId, request("Cached"));
+        noteTakingRepository.findByIdAndOwnerId(note.getId(), ownerId);
+        statistics.clear();
+
+        Optional<Note> cached = noteTakingRepository.findByIdAndOwnerId(note.getId(), ownerId);
+
+        assertTrue(cached.isPresent());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void testCachedNoteNotReturnedToOtherOwner() {
+        Note note = noteTakingService.addNotes(ownerId, request("Cached"));
+        noteTakingRepository.findByIdAndOwnerId(note.getId(), ownerId);
+
+        assertTrue(noteTakingRepository.findByIdAndOwnerId(note.getId(), "other").isEmpty());
+    }
+
+    @Test
+    public void testListingNotQueryCached() {
+        noteTakingService.addNotes(ownerId, request("Listed"));
+        noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(ownerId);
+        statistics.clear();
+
+        List<Note> notes = noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(ownerId);
+
+        assertEquals(1, notes.size());
+        assertEquals(0, statistics.getQueryCachePutCount());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    public void testListingReflectsWrites() {
+        Note note = noteTakingService.addNotes(ownerId, request("Toggled"));
+        noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(ownerId);
+
+        noteTakingService.toggleFavorite(ownerId, note.getId());
+        List<Note> afterToggle = noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(ownerId);
+        noteTakingService.toggleSoftDelete(ownerId, note.getId());
+        List<Note> afterDelete = noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(ownerId);
+
+        assertTrue(afterToggle.get(0).isFavourite());
+        assertTrue(afterDelete.isEmpty());
+    }
+
+    @Test
+    public void testFlagUpdateEvictsOnlyUpdatedNotes() {
+        Note toggled = noteTakingService.addNotes(ownerId, request("Toggled"));
+        Note untouched = noteTakingService.addNotes(ownerId, request("Untouched"));
+        noteTakingRepository.findById(toggled.getId());
+        noteTakingRepository.findById(untouched.getId());
+
+        noteTakingRepository.updateFavourite(List.of(toggled.getId()), true, LocalDateTime.now());
+        statistics.clear();
+
+        assertTrue(noteTakingRepository.findById(toggled.getId()).orElseThrow().isFavourite());
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertFalse(noteTakingRepository.findById(untouched.getId()).orElseThrow().isFavourite());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(Optional.of(true), noteTakingRepository.findFavouriteById(toggled.getId()));
+    }
+
+    private NoteTakingRequest request(String title) {
+        NoteTakingRequest request = new NoteTakingRequest();
+        request.setTitle(title);
+        request.setContent("Content");
+        request.setFolder(Folder.Personal);
+        return request;
+    }
+}
@@ -0,0 +1,29 @@
+package notetakingapplication.service;
+
+import notetakingapplication.repository.NoteTakingRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class LegacyOwnerBackfillTest {
+    private final NoteTakingRepository noteTakingRepository = Mockito.mock(NoteTakingRepository.class);
+
+    @Test
+    public void testBackfill_AssignsConfiguredOwner() {
+        new LegacyOwnerBackfill(noteTakingRepository, "legacy").backfill();
+
+        verify(noteTakingRepository).assignOwnerToUnownedNotes(eq("legacy"), any());
+    }
+
+    @Test
+    public void testBackfill_SkippedWithoutConfiguredOwner() {
+        new LegacyOwnerBackfill(noteTakingRepository, "").backfill();
+
+        verify(noteTakingRepository, never()).assignOwnerToUnownedNotes(any(), any());
+        verify(noteTakingRepository).countByOwnerIdIsNull();
+    }
+}
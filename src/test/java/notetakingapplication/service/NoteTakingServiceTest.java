@@ -1,21 +1,42 @@
 package notetakingapplication.service;
 
+import notetakingapplication.config.IndexProperties;
+import notetakingapplication.config.NoteLimitsProperties;
+import notetakingapplication.config.WriteBehindProperties;
 import notetakingapplication.constant.Folder;
+import notetakingapplication.constant.NoteEventType;
 import notetakingapplication.contract.request.NoteTakingRequest;
+import notetakingapplication.event.NoteEvent;
+import notetakingapplication.exception.QuotaExceededException;
+import notetakingapplication.exception.RateLimitExceededException;
+import notetakingapplication.index.ColumnarNoteIndex;
 import notetakingapplication.model.Note;
+import notetakingapplication.model.NoteTombstone;
 import notetakingapplication.repository.NoteTakingRepository;
+import notetakingapplication.repository.NoteTombstoneRepository;
+import notetakingapplication.snapshot.NoteMetadata;
+import notetakingapplication.writebehind.ToggleWriteBehind;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -23,21 +44,36 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class NoteTakingServiceTest {
     private NoteTakingRepository noteTakingRepository;
+    private NoteTombstoneRepository noteTombstoneRepository;
     private ModelMapper modelMapper;
-    private NoteTakingService noteTakingService = new NoteTakingService(null, null);
+    private NoteLimitsProperties noteLimitsProperties;
+    private ToggleWriteBehind toggleWriteBehind;
+    private ApplicationEventPublisher eventPublisher;
+    private ColumnarNoteIndex columnarNoteIndex;
+    private NoteTakingService noteTakingService = new NoteTakingService(null, null, null, null, null, null, null);
+    private static final String OWNER_ID = "user-1";
 
     @BeforeEach
     public void init() {
         MockitoAnnotations.openMocks(this);
         noteTakingRepository = Mockito.mock(NoteTakingRepository.class);
+        noteTombstoneRepository = Mockito.mock(NoteTombstoneRepository.class);
         modelMapper = Mockito.mock(ModelMapper.class);
-        noteTakingService = new NoteTakingService(noteTakingRepository, modelMapper);
+        noteLimitsProperties = new NoteLimitsProperties();
+        toggleWriteBehind = new ToggleWriteBehind(new WriteBehindProperties(), noteTakingRepository);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        columnarNoteIndex = new ColumnarNoteIndex(new IndexProperties(), null);
+        noteTakingService = new NoteTakingService(noteTakingRepository, noteTombstoneRepository, modelMapper, noteLimitsProperties, toggleWriteBehind, eventPublisher, columnarNoteIndex);
     }
 
     @Test
@@ -49,9 +85,50 @@ public class NoteTakingServiceTest {
         when(modelMapper.map(request, Note.class)).thenReturn(note);
         when(noteTakingRepository.save(note)).thenReturn(note);
 
-        Note result = noteTakingService.addNotes(request);
+        Note result = noteTakingService.addNotes(OWNER_ID, request);
 
         assertEquals(note, result);
+        assertEquals(OWNER_ID, result.getOwnerId());
+    }
+
+    @Test
+    public void testAddNotes_QuotaExceeded() {
+        noteLimitsProperties.setMaxNotesPerOwner(2);
+        when(noteTakingRepository.countByOwnerId(OWNER_ID)).thenReturn(2L);
+
+        assertThrows(QuotaExceededException.class, () -> noteTakingService.addNotes(OWNER_ID, new NoteTakingRequest()));
+        verify(noteTakingRepository, times(0)).save(any(Note.class));
+    }
+
+    @Test
+    public void testAddNotes_RateLimitExceeded() {
+        noteLimitsProperties.setWriteBurst(1);
+        noteLimitsProperties.setWritesPerSecond(0.001);
+        NoteTakingRequest request = new NoteTakingRequest();
+        when(modelMapper.map(request, Note.class)).thenReturn(new Note());
+        when(noteTakingRepository.save(any(Note.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        noteTakingService.addNotes(OWNER_ID, request);
+
+        assertThrows(RateLimitExceededException.class, () -> noteTakingService.addNotes(OWNER_ID, request));
+        noteTakingService.addNotes("user-2", request);
+    }
+
+    @Test
+    public void testEvictIdleWriteBuckets_DropsRefilledBuckets() throws Exception {
+        noteLimitsProperties.setWriteBurst(1);
+        noteLimitsProperties.setWritesPerSecond(1000);
+        NoteTakingRequest request = new NoteTakingRequest();
+        when(modelMapper.map(request, Note.class)).thenReturn(new Note());
+        when(noteTakingRepository.save(any(Note.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        for (int i = 0; i < 100; i++) {
+            noteTakingService.addNotes("rotated-" + i, request);
+        }
+        Thread.sleep(10);
+
+        noteTakingService.evictIdleWriteBuckets();
+
+        assertEquals(0, noteTakingService.getTrackedWriteBuckets());
     }
 
     @Test
@@ -60,9 +137,9 @@ public class NoteTakingServiceTest {
         Note note2 = new Note();
         List<Note> expectedNotes = Arrays.asList(note1, note2);
 
-        when(noteTakingRepository.findAllByOrderByUpdatedAtDesc()).thenReturn(expectedNotes);
+        when(noteTakingRepository.findAllByOwnerIdOrderByUpdatedAtDesc(OWNER_ID)).thenReturn(expectedNotes);
 
-        List<Note> actualNotes = noteTakingService.getAllNotesSortedByUpdatedDate();
+        List<Note> actualNotes = noteTakingService.getAllNotesSortedByUpdatedDate(OWNER_ID);
 
         assertEquals(expectedNotes, actualNotes);
     }
@@ -71,9 +148,9 @@ public class NoteTakingServiceTest {
     public void testGetNoteById() {
         long id = 1L;
         Note note = new Note();
-        when(noteTakingRepository.findById(id)).thenReturn(Optional.of(note));
-        Note result = noteTakingService.getNoteById(id);
-        verify(noteTakingRepository, times(1)).findById(id);
+        when(noteTakingRepository.findByIdAndOwnerId(id, OWNER_ID)).thenReturn(Optional.of(note));
+        Note result = noteTakingService.getNoteById(OWNER_ID, id);
+        verify(noteTakingRepository, times(1)).findByIdAndOwnerId(id, OWNER_ID);
         assertEquals(note.getTitle(), result.getTitle());
         assertEquals(note.getContent(), result.getContent());
     }
@@ -81,9 +158,9 @@ public class NoteTakingServiceTest {
     @Test
     public void testGetNoteById_NotFound() {
         long id = 1L;
-        when(noteTakingRepository.findById(id)).thenReturn(Optional.empty());
-        assertThrows(RuntimeException.class, () -> noteTakingService.getNoteById(id));
-        verify(noteTakingRepository, times(1)).findById(id);
+        when(noteTakingRepository.findByIdAndOwnerId(id, OWNER_ID)).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> noteTakingService.getNoteById(OWNER_ID, id));
+        verify(noteTakingRepository, times(1)).findByIdAndOwnerId(id, OWNER_ID);
     }
 
     @Test
@@ -91,14 +168,14 @@ public class NoteTakingServiceTest {
         long id = 1L;
         NoteTakingRequest request = new NoteTakingRequest();
 
-        Note note = new Note(1L, "Old Title", "Old Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.valueOf("Personal"));
-        when(noteTakingRepository.findById(id)).thenReturn(Optional.of(note));
+        Note note = new Note(1L, OWNER_ID, "Old Title", "Old Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.valueOf("Personal"), null);
+        when(noteTakingRepository.findByIdAndOwnerId(id, OWNER_ID)).thenReturn(Optional.of(note));
 
-        Note updatedNote = noteTakingService.updateNoteById(id, request);
+        Note updatedNote = noteTakingService.updateNoteById(OWNER_ID, id, request);
 
         assertEquals(request.getTitle(), updatedNote.getTitle());
         assertEquals(request.getContent(), updatedNote.getContent());
-        verify(noteTakingRepository, times(1)).findById(id);
+        verify(noteTakingRepository, times(1)).findByIdAndOwnerId(id, OWNER_ID);
         verify(noteTakingRepository, times(1)).save(any(Note.class));
     }
 
@@ -106,34 +183,38 @@ public class NoteTakingServiceTest {
     public void testDeleteNoteById() {
         long id = 1L;
 
-        when(noteTakingRepository.existsById(id)).thenReturn(true);
-        noteTakingService.deleteNoteById(id);
+        when(noteTakingRepository.existsByIdAndOwnerId(id, OWNER_ID)).thenReturn(true);
+        noteTakingService.deleteNoteById(OWNER_ID, id);
 
-        verify(noteTakingRepository, times(1)).existsById(id);
+        verify(noteTakingRepository, times(1)).existsByIdAndOwnerId(id, OWNER_ID);
         verify(noteTakingRepository, times(1)).deleteById(id);
+        ArgumentCaptor<NoteTombstone> tombstone = ArgumentCaptor.forClass(NoteTombstone.class);
+        verify(noteTombstoneRepository, times(1)).save(tombstone.capture());
+        assertEquals(id, tombstone.getValue().getNoteId());
+        assertEquals(OWNER_ID, tombstone.getValue().getOwnerId());
     }
 
     @Test
     public void testDeleteNoteById_NotFound() {
         long id = 1L;
 
-        when(noteTakingRepository.existsById(id)).thenReturn(false);
+        when(noteTakingRepository.existsByIdAndOwnerId(id, OWNER_ID)).thenReturn(false);
 
-        assertThrows(RuntimeException.class, () -> noteTakingService.deleteNoteById(id));
-        verify(noteTakingRepository, times(1)).existsById(id);
+        assertThrows(RuntimeException.class, () -> noteTakingService.deleteNoteById(OWNER_ID, id));
+        verify(noteTakingRepository, times(1)).existsByIdAndOwnerId(id, OWNER_ID);
     }
 
     @Test
     public void testToggleFavorite() {
         Long noteId = 1L;
 
-        Note note = new Note(1L, "Title", "Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.valueOf("Personal"));
-        when(noteTakingRepository.findById(noteId)).thenReturn(Optional.of(note));
+        Note note = new Note(1L, OWNER_ID, "Title", "Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.valueOf("Personal"), null);
+        when(noteTakingRepository.findByIdAndOwnerId(noteId, OWNER_ID)).thenReturn(Optional.of(note));
 
-        Note updatedNote = noteTakingService.toggleFavorite(noteId);
+        Note updatedNote = noteTakingService.toggleFavorite(OWNER_ID, noteId);
 
         assertEquals(!note.isFavourite(), updatedNote.isFavourite());
-        verify(noteTakingRepository, times(1)).findById(noteId);
+        verify(noteTakingRepository, times(1)).findByIdAndOwnerId(noteId, OWNER_ID);
         verify(noteTakingRepository, times(1)).save(any(Note.class));
     }
 
@@ -141,13 +222,13 @@ public class NoteTakingServiceTest {
     public void testToggleSoftDelete() {
         Long noteId = 1L;
 
-        Note note = new Note(1L, "Title", "Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.valueOf("Personal"));
-        when(noteTakingRepository.findById(noteId)).thenReturn(Optional.of(note));
+        Note note = new Note(1L, OWNER_ID, "Title", "Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.valueOf("Personal"), null);
+        when(noteTakingRepository.findByIdAndOwnerId(noteId, OWNER_ID)).thenReturn(Optional.of(note));
 
-        Long returnedNoteId = noteTakingService.toggleSoftDelete(noteId);
+        Long returnedNoteId = noteTakingService.toggleSoftDelete(OWNER_ID, noteId);
 
         assertEquals(noteId, returnedNoteId);
-        verify(noteTakingRepository, times(1)).findById(noteId);
+        verify(noteTakingRepository, times(1)).findByIdAndOwnerId(noteId, OWNER_ID);
         verify(noteTakingRepository, times(1)).save(any(Note.class));
     }
 
@@ -169,9 +250,9 @@ public class NoteTakingServiceTest {
 
         List<Note> allNotes = Arrays.asList(note1, note2);
 
-        when(noteTakingRepository.findAll()).thenReturn(allNotes);
+        when(noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID)).thenReturn(allNotes);
 
-        List<Note> result = noteTakingService.getAllFavoriteNotes("Title1");
+        List<Note> result = noteTakingService.getAllFavoriteNotes(OWNER_ID, "Title1");
 
         assertEquals(1, result.size());
 
@@ -193,17 +274,11 @@ public class NoteTakingServiceTest {
                 .updatedAt(LocalDateTime.now().minusDays(1))
                 .build();
 
-        Note note3 = Note.builder()
-                .isDeleted(false)
-                .title("Title3")
-                .updatedAt(LocalDateTime.now().minusDays(2))
-                .build();
+        List<Note> deletedNotes = Arrays.asList(note1, note2);
 
-        List<Note> allNotes = Arrays.asList(note1, note2, note3);
+        when(noteTakingRepository.findAllByOwnerIdAndIsDeletedTrueOrderByUpdatedAtDesc(OWNER_ID)).thenReturn(deletedNotes);
 
-        when(noteTakingRepository.findAll()).thenReturn(allNotes);
-
-        List<Note> result = noteTakingService.getAllDeletedNotesSortedByUpdatedDate("Title1");
+        List<Note> result = noteTakingService.getAllDeletedNotesSortedByUpdatedDate(OWNER_ID, "Title1");
 
         assertEquals(1, result.size());
 
@@ -215,12 +290,12 @@ public class NoteTakingServiceTest {
     @Test
     public void testGetAllUnDeletedNotesSortedByUpdatedDate() {
         Note note = new Note();
-        when(noteTakingRepository.findAllByIsDeletedFalseOrderByUpdatedAtDesc()).thenReturn(Collections.singletonList(note));
+        when(noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID)).thenReturn(Collections.singletonList(note));
 
-        List<Note> notes = noteTakingService.getAllUndeletedNotesSortedByUpdatedDate();
+        List<Note> notes = noteTakingService.getAllUndeletedNotesSortedByUpdatedDate(OWNER_ID);
 
         assertFalse(notes.isEmpty());
-        verify(noteTakingRepository, times(1)).findAllByIsDeletedFalseOrderByUpdatedAtDesc();
+        verify(noteTakingRepository, times(1)).findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID);
     }
 
     @Test
@@ -234,16 +309,16 @@ public class NoteTakingServiceTest {
                 .build();
 
         Note note2 = Note.builder()
-                .title("Title2")
-                .folder(folder)
-                .isDeleted(true)
+                .title("Title1")
+                .folder(Folder.Work)
+                .isDeleted(false)
                 .build();
 
-        List<Note> allNotes = Arrays.asList(note1, note2);
+        List<Note> undeletedNotes = Arrays.asList(note1, note2);
 
-        when(noteTakingRepository.findAll()).thenReturn(allNotes);
+        when(noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID)).thenReturn(undeletedNotes);
 
-        List<Note> result = noteTakingService.getAllNotesByFolder(folder, "Title1");
+        List<Note> result = noteTakingService.getAllNotesByFolder(OWNER_ID, folder, "Title1");
 
         assertEquals(1, result.size());
 
@@ -257,12 +332,133 @@ public class NoteTakingServiceTest {
     public void testSearchNotesByTitle() {
         String title = "Test Title";
         List<Note> allNotes = new ArrayList<>();
-        when(noteTakingRepository.findAll()).thenReturn(allNotes);
-        List<Note> actualNotes = noteTakingService.searchNotesByTitle(title);
+        when(noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID)).thenReturn(allNotes);
+        List<Note> actualNotes = noteTakingService.searchNotesByTitle(OWNER_ID, title);
         List<Note> expectedNotes = allNotes.stream()
                 .filter(note -> note.getTitle().toLowerCase().contains(title.toLowerCase()) && !note.isDeleted())
                 .collect(Collectors.toList());
         assertEquals(expectedNotes, actualNotes);
-        Mockito.verify(noteTakingRepository).findAll();
+        Mockito.verify(noteTakingRepository).findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID);
+    }
+
+    @Test
+    public void testSearchNotesByTitle_CoalescesThunderingHerd() throws Exception {
+        int callers = 100;
+        CountDownLatch start = new CountDownLatch(1);
+        Note note = Note.builder().title("Popular").build();
+        when(noteTakingRepository.findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return Collections.singletonList(note);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<Note>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return noteTakingService.searchNotesByTitle(OWNER_ID, "popular");
+                }));
+            }
+            start.countDown();
+            for (Future<List<Note>> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(noteTakingRepository, atMost(callers / 10)).findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID);
+    }
+
+    @Test
+    public void testToggles_WriteBehindObservedByReads(@TempDir Path tempDir) throws Exception {
+        WriteBehindProperties writeBehindProperties = new WriteBehindProperties();
+        writeBehindProperties.setEnabled(true);
+        writeBehindProperties.setJournalPath(tempDir.resolve("journal.bin").toString());
+        writeBehindProperties.setJournalSizeBytes(4096);
+        toggleWriteBehind = new ToggleWriteBehind(writeBehindProperties, noteTakingRepository);
+        toggleWriteBehind.start();
+        noteTakingService = new NoteTakingService(noteTakingRepository, noteTombstoneRepository, modelMapper, noteLimitsProperties, toggleWriteBehind, eventPublisher, columnarNoteIndex);
+        Note note = new Note(1L, OWNER_ID, "Title", "Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.Personal, null);
+        when(noteTakingRepository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Optional.of(note));
+        when(noteTakingRepository.findFavouriteById(1L)).thenReturn(Optional.of(false));
+        when(noteTakingRepository.findDeletedById(1L)).thenReturn(Optional.of(false));
+        when(noteTakingRepository.findAllByOwnerIdOrderByUpdatedAtDesc(OWNER_ID)).thenReturn(Collections.singletonList(note));
+
+        assertTrue(noteTakingService.toggleFavorite(OWNER_ID, 1L).isFavourite());
+        noteTakingService.toggleSoftDelete(OWNER_ID, 1L);
+
+        assertTrue(noteTakingService.getNoteById(OWNER_ID, 1L).isFavourite());
+        assertTrue(noteTakingService.getAllUndeletedNotesSortedByUpdatedDate(OWNER_ID).isEmpty());
+        assertEquals(1, noteTakingService.getAllDeletedNotesSortedByUpdatedDate(OWNER_ID, "title").size());
+        verify(noteTakingRepository, never()).save(any(Note.class));
+        verify(noteTakingRepository, never()).updateFavourite(anyCollection(), anyBoolean(), any());
+        toggleWriteBehind.stop();
+    }
+
+    @Test
+    public void testWrites_PublishNoteEvents() {
+        Note note = new Note(1L, OWNER_ID, "Title", "Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.Personal, null);
+        when(noteTakingRepository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Optional.of(note));
+        when(noteTakingRepository.existsByIdAndOwnerId(1L, OWNER_ID)).thenReturn(true);
+
+        noteTakingService.toggleFavorite(OWNER_ID, 1L);
+        noteTakingService.deleteNoteById(OWNER_ID, 1L);
+
+        ArgumentCaptor<NoteEvent> events = ArgumentCaptor.forClass(NoteEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(NoteEventType.FAVOURITE_TOGGLED, events.getAllValues().get(0).getType());
+        assertTrue(events.getAllValues().get(0).getNote().isFavourite());
+        assertEquals(NoteEventType.DELETED, events.getAllValues().get(1).getType());
+        assertEquals(OWNER_ID, events.getAllValues().get(1).getOwnerId());
+    }
+
+    @Test
+    public void testGetAllFavoriteNotes_FromColumnarIndexRecheckedAgainstDatabase() {
+        IndexProperties indexProperties = new IndexProperties();
+        indexProperties.setEnabled(true);
+        columnarNoteIndex = new ColumnarNoteIndex(indexProperties, null);
+        noteTakingService = new NoteTakingService(noteTakingRepository, noteTombstoneRepository, modelMapper, noteLimitsProperties, toggleWriteBehind, eventPublisher, columnarNoteIndex);
+        LocalDateTime now = LocalDateTime.now();
+        Note older = new Note(1L, OWNER_ID, "Work plan", "Content", now, now.minusDays(1), true, false, Folder.Work, null);
+        Note newer = new Note(2L, OWNER_ID, "Holiday plan", "Content", now, now, true, false, Folder.Personal, null);
+        Note notFavourite = new Note(3L, OWNER_ID, "Plan", "Content", now, now, false, false, Folder.Personal, null);
+        Note unfavouritedElsewhere = new Note(4L, OWNER_ID, "Old plan", "Content", now, now.minusDays(2), true, false, Folder.Personal, null);
+        Arrays.asList(older, newer, notFavourite, unfavouritedElsewhere).forEach(note -> columnarNoteIndex.put(NoteMetadata.of(note)));
+        when(noteTakingRepository.findAllById(Arrays.asList(2L, 1L, 4L))).thenReturn(Arrays.asList(older, newer,
+                new Note(4L, OWNER_ID, "Old plan", "Content", now, now, false, false, Folder.Personal, null)));
+
+        List<Note> result = noteTakingService.getAllFavoriteNotes(OWNER_ID, "PLAN");
+
+        assertEquals(Arrays.asList(newer, older), result);
+        verify(noteTakingRepository, never()).findAllByOwnerIdAndIsDeletedFalseOrderByUpdatedAtDesc(OWNER_ID);
+        columnarNoteIndex.stop();
+    }
+
+    @Test
+    public void testGetAllUndeletedNotes_FromColumnarIndexBeyondQuotaInChunks() {
+        IndexProperties indexProperties = new IndexProperties();
+        indexProperties.setEnabled(true);
+        columnarNoteIndex = new ColumnarNoteIndex(indexProperties, null);
+        noteTakingService = new NoteTakingService(noteTakingRepository, noteTombstoneRepository, modelMapper, noteLimitsProperties, toggleWriteBehind, eventPublisher, columnarNoteIndex);
+        noteLimitsProperties.setMaxNotesPerOwner(10);
+        LocalDateTime now = LocalDateTime.now();
+        List<Note> notes = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            Note note = new Note(id, OWNER_ID, "Title", "Content", now, now.minusSeconds(id), false, false, Folder.Work, null);
+            notes.add(note);
+            columnarNoteIndex.put(NoteMetadata.of(note));
+        }
+        when(noteTakingRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(ids::add);
+            return ids.stream().map(id -> notes.get((int) (id - 1))).collect(Collectors.toList());
+        });
+
+        List<Note> result = noteTakingService.getAllUndeletedNotesSortedByUpdatedDate(OWNER_ID);
+
+        assertEquals(notes, result);
+        verify(noteTakingRepository, times(2)).findAllById(any());
+        columnarNoteIndex.stop();
     }
 }
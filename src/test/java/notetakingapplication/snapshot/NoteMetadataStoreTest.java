@@ -0,0 +1,162 @@
+package notetakingapplication.snapshot;
+
+import notetakingapplication.config.SnapshotProperties;
+import notetakingapplication.constant.Folder;
+import notetakingapplication.constant.NoteEventType;
+import notetakingapplication.event.NoteEvent;
+import notetakingapplication.model.Note;
+import notetakingapplication.model.NoteTombstone;
+import notetakingapplication.repository.NoteTakingRepository;
+import notetakingapplication.repository.NoteTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NoteMetadataStoreTest {
+    private static final LocalDateTime SNAPSHOT_TIME = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+    @TempDir
+    Path tempDir;
+    private NoteTakingRepository noteTakingRepository;
+    private NoteTombstoneRepository noteTombstoneRepository;
+    private SnapshotProperties snapshotProperties;
+
+    @BeforeEach
+    public void init() {
+        noteTakingRepository = Mockito.mock(NoteTakingRepository.class);
+        noteTombstoneRepository = Mockito.mock(NoteTombstoneRepository.class);
+        snapshotProperties = new SnapshotProperties();
+        snapshotProperties.setEnabled(true);
+        snapshotProperties.setPath(tempDir.resolve("snapshot.bin").toString());
+    }
+
+    @Test
+    public void testStart_WithoutSnapshotLoadsFromDatabase() {
+        when(noteTakingRepository.findAllMetadata()).thenReturn(Collections.singletonList(metadata(1L, "Title", false)));
+        NoteMetadataStore store = store();
+
+        store.start();
+
+        assertEquals(1, store.size());
+        verify(noteTakingRepository, never()).findMetadataModifiedSince(any());
+    }
+
+    @Test
+    public void testStart_ReplaysOnlyChangesSinceSnapshot() throws Exception {
+        NoteSnapshotFile.write(tempDir.resolve("snapshot.bin"), Arrays.asList(
+                metadata(1L, "Old title", false), metadata(2L, "Kept", false), metadata(3L, "Hard deleted", false)), SNAPSHOT_TIME);
+        LocalDateTime since = SNAPSHOT_TIME.minusSeconds(5);
+        when(noteTakingRepository.findMetadataModifiedSince(since)).thenReturn(Arrays.asList(
+                metadata(1L, "New title", false).withModifiedAt(SNAPSHOT_TIME.plusMinutes(1)),
+                metadata(2L, "Kept", true).withModifiedAt(SNAPSHOT_TIME.plusMinutes(1)),
+                metadata(4L, "Late commit", false).withModifiedAt(SNAPSHOT_TIME.minusSeconds(1))));
+        when(noteTombstoneRepository.findAllByDeletedAtGreaterThanEqual(since)).thenReturn(Collections.singletonList(
+                new NoteTombstone(3L, "user-1", SNAPSHOT_TIME.plusMinutes(2))));
+        NoteMetadataStore store = store();
+
+        store.start();
+
+        assertEquals("New title", store.get(1L).getTitle());
+        assertTrue(store.get(2L).isFavourite());
+        assertNull(store.get(3L));
+        assertEquals("Late commit", store.get(4L).getTitle());
+        verify(noteTakingRepository, never()).findAllMetadata();
+    }
+
+    @Test
+    public void testStart_IgnoresSnapshotOlderThanTombstoneRetention() throws Exception {
+        NoteSnapshotFile.write(tempDir.resolve("snapshot.bin"), Collections.singletonList(metadata(1L, "Title", false)),
+                LocalDateTime.now().minusDays(8));
+        when(noteTakingRepository.findAllMetadata()).thenReturn(Collections.singletonList(metadata(2L, "Title", false)));
+        NoteMetadataStore store = store();
+
+        store.start();
+
+        assertNull(store.get(1L));
+        assertEquals(1, store.size());
+        verify(noteTakingRepository, never()).findMetadataModifiedSince(any());
+    }
+
+    @Test
+    public void testRefresh_AppliesChangesFromOtherNodesAndAdvancesHighWater() {
+        when(noteTakingRepository.findAllMetadata()).thenReturn(Arrays.asList(
+                metadata(1L, "Title", false), metadata(2L, "Removed elsewhere", false)));
+        LocalDateTime remoteWrite = SNAPSHOT_TIME.plusSeconds(30);
+        when(noteTakingRepository.findMetadataModifiedSince(SNAPSHOT_TIME.minusSeconds(5))).thenReturn(Collections.singletonList(
+                metadata(1L, "Title", true).withModifiedAt(remoteWrite)));
+        when(noteTombstoneRepository.findAllByDeletedAtGreaterThanEqual(SNAPSHOT_TIME.minusSeconds(5))).thenReturn(
+                Collections.singletonList(new NoteTombstone(2L, "user-1", SNAPSHOT_TIME.plusSeconds(10))));
+        NoteMetadataStore store = store();
+        store.start();
+
+        store.refresh();
+        store.refresh();
+
+        assertTrue(store.get(1L).isFavourite());
+        assertNull(store.get(2L));
+        verify(noteTakingRepository, times(1)).findMetadataModifiedSince(remoteWrite.minusSeconds(5));
+    }
+
+    @Test
+    public void testRefresh_KeepsNewerLocalWrite() {
+        when(noteTakingRepository.findAllMetadata()).thenReturn(Collections.singletonList(metadata(1L, "Title", false)));
+        when(noteTakingRepository.findMetadataModifiedSince(any())).thenReturn(Collections.singletonList(
+                metadata(1L, "Read before the local write", false).withModifiedAt(SNAPSHOT_TIME.plusSeconds(10))));
+        NoteMetadataStore store = store();
+        store.start();
+        Note note = new Note(1L, "user-1", "Local write", "Content", SNAPSHOT_TIME, SNAPSHOT_TIME, false, false,
+                Folder.Personal, SNAPSHOT_TIME.plusSeconds(20));
+
+        store.onNoteEvent(new NoteEvent(NoteEventType.UPDATED, "user-1", 1L, note));
+        store.refresh();
+
+        assertEquals("Local write", store.get(1L).getTitle());
+    }
+
+    @Test
+    public void testOnNoteEvent_KeepsStoreCurrentAndSnapshotsIt() throws Exception {
+        NoteMetadataStore store = store();
+        Note note = new Note(1L, "user-1", "Title", "Content", SNAPSHOT_TIME, SNAPSHOT_TIME, false, false, Folder.Work, SNAPSHOT_TIME);
+
+        store.onNoteEvent(new NoteEvent(NoteEventType.ADDED, "user-1", 1L, note));
+        store.onNoteEvent(new NoteEvent(NoteEventType.ADDED, "user-1", 2L,
+                new Note(2L, "user-1", "Other", "Content", SNAPSHOT_TIME, SNAPSHOT_TIME, false, false, Folder.Work, SNAPSHOT_TIME)));
+        store.onNoteEvent(new NoteEvent(NoteEventType.DELETED, "user-1", 2L, null));
+        store.stop();
+
+        NoteSnapshotFile.Snapshot snapshot = NoteSnapshotFile.read(tempDir.resolve("snapshot.bin"));
+        assertEquals(Collections.singletonList(NoteMetadata.of(note)), snapshot.getNotes());
+        assertFalse(snapshot.getNotes().get(0).isDeleted());
+    }
+
+    @Test
+    public void testPurgeTombstones_DropsTombstonesOlderThanRetention() {
+        store().purgeTombstones();
+
+        verify(noteTombstoneRepository, times(1)).deleteAllDeletedBefore(any());
+    }
+
+    private NoteMetadataStore store() {
+        return new NoteMetadataStore(snapshotProperties, noteTakingRepository, noteTombstoneRepository);
+    }
+
+    private static NoteMetadata metadata(long id, String title, boolean favourite) {
+        return new NoteMetadata(id, "user-1", title, Folder.Personal, favourite, false, SNAPSHOT_TIME, SNAPSHOT_TIME, SNAPSHOT_TIME);
+    }
+}
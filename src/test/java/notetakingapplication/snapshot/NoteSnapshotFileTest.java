@@ -0,0 +1,63 @@
+package notetakingapplication.snapshot;
+
+import notetakingapplication.constant.Folder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NoteSnapshotFileTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWrite_RoundTrips() throws Exception {
+        Path path = tempDir.resolve("snapshot.bin");
+        LocalDateTime created = LocalDateTime.of(2023, 5, 1, 10, 15, 30, 123456000);
+        LocalDateTime updated = created.plusDays(3);
+        LocalDateTime modified = updated.plusHours(1);
+        List<NoteMetadata> notes = Arrays.asList(
+                new NoteMetadata(1L, "user-1", "Groceries ü", Folder.Personal, true, false, created, created, null),
+                new NoteMetadata(2L, "user-2", null, null, false, true, null, updated, modified));
+
+        NoteSnapshotFile.write(path, notes, modified);
+        NoteSnapshotFile.Snapshot snapshot = NoteSnapshotFile.read(path);
+
+        assertEquals(notes, snapshot.getNotes());
+        assertEquals(modified, snapshot.getHighWater());
+    }
+
+    @Test
+    public void testWrite_EmptySnapshotHasNoHighWater() throws Exception {
+        Path path = tempDir.resolve("snapshot.bin");
+
+        NoteSnapshotFile.write(path, Collections.emptyList(), null);
+
+        assertNull(NoteSnapshotFile.read(path).getHighWater());
+        assertEquals(0, NoteSnapshotFile.read(path).getNotes().size());
+    }
+
+    @Test
+    public void testRead_RejectsCorruptBody() throws Exception {
+        Path path = tempDir.resolve("snapshot.bin");
+        LocalDateTime now = LocalDateTime.now();
+        NoteSnapshotFile.write(path, Collections.singletonList(
+                new NoteMetadata(1L, "user-1", "Title", Folder.Work, false, false, now, now, now)), now);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), channel.size() - 1);
+        }
+
+        assertThrows(IllegalStateException.class, () -> NoteSnapshotFile.read(path));
+    }
+}
@@ -0,0 +1,65 @@
+package notetakingapplication.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ToggleJournalTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testAppend_SurvivesReopen() throws Exception {
+        Path path = tempDir.resolve("journal.bin");
+        ToggleJournal journal = new ToggleJournal(path, 4096, false);
+        journal.append(1L, ToggleJournal.FAVOURITE, true);
+        journal.append(2L, ToggleJournal.DELETED, false);
+
+        ToggleJournal reopened = new ToggleJournal(path, 4096, false);
+        List<ToggleJournal.Entry> entries = reopened.readAll();
+
+        assertEquals(Arrays.asList(
+                new ToggleJournal.Entry(1L, ToggleJournal.FAVOURITE, true),
+                new ToggleJournal.Entry(2L, ToggleJournal.DELETED, false)), entries);
+        reopened.append(3L, ToggleJournal.FAVOURITE, false);
+        assertEquals(3, reopened.readAll().size());
+        journal.close();
+        reopened.close();
+    }
+
+    @Test
+    public void testCompact_ReplacesContents() throws Exception {
+        Path path = tempDir.resolve("journal.bin");
+        try (ToggleJournal journal = new ToggleJournal(path, 4096, false)) {
+            journal.append(1L, ToggleJournal.FAVOURITE, true);
+            journal.append(1L, ToggleJournal.FAVOURITE, false);
+            journal.append(2L, ToggleJournal.DELETED, true);
+
+            assertTrue(journal.compact(List.of(new ToggleJournal.Entry(2L, ToggleJournal.DELETED, true))));
+            assertEquals(1, journal.readAll().size());
+
+            assertTrue(journal.compact(List.of()));
+            journal.append(4L, ToggleJournal.FAVOURITE, true);
+            assertEquals(List.of(new ToggleJournal.Entry(4L, ToggleJournal.FAVOURITE, true)), journal.readAll());
+        }
+        try (ToggleJournal reopened = new ToggleJournal(path, 4096, false)) {
+            assertEquals(List.of(new ToggleJournal.Entry(4L, ToggleJournal.FAVOURITE, true)), reopened.readAll());
+        }
+    }
+
+    @Test
+    public void testAppend_ReturnsFalseWhenFull() throws Exception {
+        try (ToggleJournal journal = new ToggleJournal(tempDir.resolve("journal.bin"), 12 + 2 * 22, false)) {
+            assertTrue(journal.append(1L, ToggleJournal.FAVOURITE, true));
+            assertTrue(journal.append(2L, ToggleJournal.FAVOURITE, true));
+            assertFalse(journal.append(3L, ToggleJournal.FAVOURITE, true));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package notetakingapplication.writebehind;
+
+import notetakingapplication.config.WriteBehindProperties;
+import notetakingapplication.constant.Folder;
+import notetakingapplication.model.Note;
+import notetakingapplication.repository.NoteTakingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ToggleWriteBehindTest {
+    private static final String OWNER_ID = "user-1";
+
+    @TempDir
+    Path tempDir;
+    private NoteTakingRepository noteTakingRepository;
+    private WriteBehindProperties writeBehindProperties;
+    private Note note;
+
+    @BeforeEach
+    public void init() {
+        noteTakingRepository = Mockito.mock(NoteTakingRepository.class);
+        writeBehindProperties = new WriteBehindProperties();
+        writeBehindProperties.setEnabled(true);
+        writeBehindProperties.setJournalPath(tempDir.resolve("journal.bin").toString());
+        writeBehindProperties.setJournalSizeBytes(4096);
+        note = new Note(1L, OWNER_ID, "Title", "Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.Personal, null);
+        when(noteTakingRepository.findAllById(any())).thenReturn(Collections.singletonList(note));
+        when(noteTakingRepository.findFavouriteById(anyLong())).thenReturn(Optional.of(false));
+        when(noteTakingRepository.findDeletedById(anyLong())).thenReturn(Optional.of(false));
+    }
+
+    @Test
+    public void testToggle_VisibleBeforeFlush() throws Exception {
+        ToggleWriteBehind writeBehind = started();
+
+        Note toggled = writeBehind.toggleFavourite(note);
+
+        assertTrue(toggled.isFavourite());
+        assertTrue(writeBehind.apply(note).isFavourite());
+        assertTrue(writeBehind.hasPending(OWNER_ID));
+        assertFalse(writeBehind.hasPending("user-2"));
+        verify(noteTakingRepository, never()).updateFavourite(anyCollection(), anyBoolean(), any());
+    }
+
+    @Test
+    public void testFlush_CoalescesRepeatedToggles() throws Exception {
+        ToggleWriteBehind writeBehind = started();
+
+        writeBehind.toggleFavourite(note);
+        writeBehind.toggleFavourite(note);
+        writeBehind.toggleFavourite(note);
+        writeBehind.toggleDeleted(note);
+        writeBehind.flush();
+
+        verify(noteTakingRepository, times(1)).updateFavourite(eq(List.of(1L)), eq(true), any());
+        verify(noteTakingRepository, times(1)).updateDeleted(eq(List.of(1L)), eq(true), any());
+        assertFalse(writeBehind.hasPending(OWNER_ID));
+    }
+
+    @Test
+    public void testFlush_WritesOnlyFlagColumns() throws Exception {
+        ToggleWriteBehind writeBehind = started();
+
+        writeBehind.toggleFavourite(note);
+        writeBehind.flush();
+
+        verify(noteTakingRepository, times(1)).updateFavourite(eq(List.of(1L)), eq(true), any());
+        verify(noteTakingRepository, never()).updateDeleted(anyCollection(), anyBoolean(), any());
+        verify(noteTakingRepository, never()).save(any(Note.class));
+        verify(noteTakingRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    public void testToggle_FlipsCurrentRowWhenNothingPending() throws Exception {
+        ToggleWriteBehind writeBehind = started();
+        when(noteTakingRepository.findFavouriteById(1L)).thenReturn(Optional.of(true));
+
+        Note toggled = writeBehind.toggleFavourite(note);
+
+        assertFalse(toggled.isFavourite());
+    }
+
+    @Test
+    public void testToggle_OtherNotesNotBlockedByDatabaseRead() throws Exception {
+        ToggleWriteBehind writeBehind = started();
+        Note other = new Note(2L, OWNER_ID, "Title", "Content", LocalDateTime.now(), LocalDateTime.now(), false, false, Folder.Personal, null);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(noteTakingRepository.findFavouriteById(1L)).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return Optional.of(false);
+        });
+        Thread slowToggle = new Thread(() -> writeBehind.toggleFavourite(note));
+        slowToggle.start();
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        assertTrue(writeBehind.toggleFavourite(other).isFavourite());
+
+        release.countDown();
+        slowToggle.join(5000);
+        assertTrue(writeBehind.apply(note).isFavourite());
+    }
+
+    @Test
+    public void testFlush_KeepsPendingStateWhenDatabaseFails() throws Exception {
+        ToggleWriteBehind writeBehind = started();
+        when(noteTakingRepository.updateFavourite(anyCollection(), anyBoolean(), any())).thenThrow(new RuntimeException("Database unavailable"));
+
+        writeBehind.toggleFavourite(note);
+        writeBehind.flush();
+
+        assertTrue(writeBehind.hasPending(OWNER_ID));
+        assertTrue(writeBehind.apply(note).isFavourite());
+    }
+
+    @Test
+    public void testStart_ReplaysJournalAfterCrash() throws Exception {
+        ToggleWriteBehind crashed = started();
+        crashed.toggleDeleted(note);
+
+        started();
+
+        verify(noteTakingRepository, times(1)).updateDeleted(eq(List.of(1L)), eq(true), any());
+    }
+
+    @Test
+    public void testStart_ReplayedTogglesKeepOwner() throws Exception {
+        ToggleWriteBehind crashed = started();
+        crashed.toggleDeleted(note);
+        when(noteTakingRepository.updateDeleted(anyCollection(), anyBoolean(), any())).thenThrow(new RuntimeException("Database unavailable"));
+
+        ToggleWriteBehind replayed = started();
+
+        assertTrue(replayed.hasPending(OWNER_ID));
+        assertTrue(replayed.apply(note).isDeleted());
+    }
+
+    @Test
+    public void testStart_DropsReplayedTogglesOfRemovedNotes() throws Exception {
+        ToggleWriteBehind crashed = started();
+        crashed.toggleDeleted(note);
+        when(noteTakingRepository.findAllById(any())).thenReturn(Collections.emptyList());
+
+        ToggleWriteBehind replayed = started();
+
+        assertFalse(replayed.apply(note).isDeleted());
+        verify(noteTakingRepository, never()).updateDeleted(anyCollection(), anyBoolean(), any());
+    }
+
+    @Test
+    public void testStart_DisabledDoesNothing() throws Exception {
+        writeBehindProperties.setEnabled(false);
+        ToggleWriteBehind writeBehind = started();
+
+        writeBehind.flush();
+
+        assertFalse(writeBehind.hasPending(OWNER_ID));
+        verify(noteTakingRepository, never()).findAllById(any());
+    }
+
+    private ToggleWriteBehind started() throws Exception {
+        ToggleWriteBehind writeBehind = new ToggleWriteBehind(writeBehindProperties, noteTakingRepository);
+        writeBehind.start();
+        return writeBehind;
+    }
+}